@@ -0,0 +1,108 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.TaskmanagerApplication;
+import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boots the application against a private in-memory H2 database for benchmarks
+ * that need the real service, repository and Flyway schema.
+ */
+final class BenchmarkApplication {
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return run(WebApplicationType.NONE, context -> {
+        }, extraProperties);
+    }
+
+    /**
+     * Same as {@link #start}, but with the embedded Tomcat listening on a random port,
+     * available as {@code local.server.port}, and the actuator on another one.
+     */
+    static ConfigurableApplicationContext startServer(
+            ApplicationContextInitializer<ConfigurableApplicationContext> initializer, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(extraProperties));
+        properties.add("server.port=0");
+        properties.add("management.server.port=0");
+        return run(WebApplicationType.SERVLET, initializer, properties.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext run(
+            WebApplicationType type,
+            ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+            String... extraProperties) {
+        // devtools would restart the app in its own class loader, turn off template caching
+        // and shut the in-memory database down a second time on close
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // command line arguments, so they win over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                // off in application.properties; on here for the hibernate.* cache meters
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.devtools.add-properties=false",
+                "--spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(TaskmanagerApplication.class)
+                .web(type)
+                .initializers(initializer)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Logs {@code client} in through the login form; its cookie handler keeps the session.
+     */
+    static void logIn(HttpClient client, String baseUrl, String username, String password)
+            throws IOException, InterruptedException {
+        String loginPage = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher token = CSRF_TOKEN.matcher(loginPage);
+        if (!token.find()) {
+            throw new IllegalStateException("No CSRF token on the login page");
+        }
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(token.group(1), StandardCharsets.UTF_8);
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    static User createUser(ConfigurableApplicationContext context, String username) {
+        return context.getBean(UserRepository.class).save(User.builder()
+                .username(username)
+                .password("benchmark")
+                .role("ROLE_USER")
+                .build());
+    }
+}
@@ -0,0 +1,216 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.support.RequestContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.context.webmvc.SpringWebMvcThymeleafRequestContext;
+import org.thymeleaf.spring6.naming.SpringContextVariableNames;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the Kanban board for the same tasks through the old template, which filters the
+ * flat task list once per column, through the grouped {@link TaskBoard} model holding every
+ * task, and through the board the dashboard actually serves: the first page of each column.
+ * {@code fullPage} renders the whole {@code task-list.html} around the paged columns taken
+ * from the column cache, {@code fullPageUncached} renders those columns as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoardRenderBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10", "1000", "50000"})
+    public int tasks;
+
+    private SpringTemplateEngine templateEngine;
+    private WebContext legacyContext;
+    private TaskBoard groupedBoard;
+    private TaskBoard pagedBoard;
+    private WebContext columnContext;
+    private WebContext pageContext;
+    private WebContext uncachedPageContext;
+
+    @Setup
+    public void setUp() {
+        templateEngine = BenchmarkTemplates.templateEngine();
+
+        List<Task> taskList = BenchmarkTemplates.tasks(tasks);
+
+        legacyContext = BenchmarkTemplates.webContext();
+        legacyContext.setVariable("tasks", taskList);
+
+        groupedBoard = BenchmarkTemplates.board(taskList, Integer.MAX_VALUE);
+        pagedBoard = BenchmarkTemplates.board(taskList, PAGE_SIZE);
+
+        columnContext = BenchmarkTemplates.webContext();
+
+        Map<String, Object> model = BenchmarkTemplates.pageModel(pagedBoard);
+        model.put("columns", renderColumns(pagedBoard));
+        pageContext = BenchmarkTemplates.pageContext(model);
+        uncachedPageContext = BenchmarkTemplates.pageContext(model);
+    }
+
+    @Benchmark
+    public String legacyFilteredList() {
+        return templateEngine.process("benchmark/legacy-board", legacyContext);
+    }
+
+    @Benchmark
+    public Map<TaskStatus, String> groupedBoard() {
+        return renderColumns(groupedBoard);
+    }
+
+    @Benchmark
+    public Map<TaskStatus, String> pagedBoard() {
+        return renderColumns(pagedBoard);
+    }
+
+    @Benchmark
+    public String fullPage() {
+        return templateEngine.process("task-list", pageContext);
+    }
+
+    @Benchmark
+    public String fullPageUncached() {
+        uncachedPageContext.setVariable("columns", renderColumns(pagedBoard));
+        return templateEngine.process("task-list", uncachedPageContext);
+    }
+
+    // what BoardColumnCache renders on a miss, one column at a time
+    private Map<TaskStatus, String> renderColumns(TaskBoard board) {
+        EnumMap<TaskStatus, String> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskColumnPage page : board.columns()) {
+            columnContext.setVariable("page", page);
+            columnContext.setVariable("count", board.count(page.status()));
+            columns.put(page.status(), templateEngine.process("fragments/board-column", Set.of("column"), columnContext));
+        }
+        return columns;
+    }
+
+    static final class BenchmarkTemplates {
+
+        private BenchmarkTemplates() {
+        }
+
+        static SpringTemplateEngine templateEngine() {
+            ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+            resolver.setPrefix("templates/");
+            resolver.setSuffix(".html");
+            resolver.setTemplateMode(TemplateMode.HTML);
+            resolver.setCacheable(true);
+
+            SpringTemplateEngine engine = new SpringTemplateEngine();
+            engine.setTemplateResolver(resolver);
+            return engine;
+        }
+
+        static WebContext webContext() {
+            MockServletContext servletContext = new MockServletContext();
+            JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+            return new WebContext(application.buildExchange(
+                    new MockHttpServletRequest(servletContext), new MockHttpServletResponse()));
+        }
+
+        // what TaskController adds besides the rendered columns
+        static Map<String, Object> pageModel(TaskBoard board) {
+            Map<String, Object> model = new HashMap<>();
+            model.put("task", new Task());
+            model.put("stats", new TaskStats(board.count(TaskStatus.TO_DO), board.count(TaskStatus.IN_PROGRESS),
+                    board.count(TaskStatus.DONE), 0));
+            model.put("today", LocalDate.of(2026, 1, 1));
+            return model;
+        }
+
+        /**
+         * A context with the Spring request context that {@code th:field} binds through, as
+         * {@code ThymeleafView} sets it up for a real request.
+         */
+        static WebContext pageContext(Map<String, Object> model) {
+            MockServletContext servletContext = new MockServletContext();
+            StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+            applicationContext.setServletContext(servletContext);
+            applicationContext.refresh();
+            servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+
+            MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+            WebContext context = new WebContext(application.buildExchange(request, response));
+            context.setVariables(model);
+
+            RequestContext requestContext = new RequestContext(request, response, servletContext, model);
+            context.setVariable(SpringContextVariableNames.SPRING_REQUEST_CONTEXT, requestContext);
+            context.setVariable(SpringContextVariableNames.THYMELEAF_REQUEST_CONTEXT,
+                    new SpringWebMvcThymeleafRequestContext(requestContext, request));
+            return context;
+        }
+
+        static List<Task> tasks(int count) {
+            TaskStatus[] statuses = TaskStatus.values();
+            List<Task> taskList = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                taskList.add(Task.builder()
+                        .id((long) i + 1)
+                        .title("Task " + i)
+                        .priority(TaskPriority.MEDIUM)
+                        .dueDate(i % 2 == 0 ? LocalDate.of(2026, 1, 1).plusDays(i % 365) : null)
+                        .status(statuses[i % statuses.length])
+                        .build());
+            }
+            return taskList;
+        }
+
+        static TaskBoard board(List<Task> taskList, int pageSize) {
+            EnumMap<TaskStatus, List<TaskCard>> grouped = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                grouped.put(status, new ArrayList<>());
+            }
+            for (Task task : taskList) {
+                grouped.get(task.getStatus()).add(new TaskCard(
+                        task.getId(), task.getTitle(), task.getPriority(), task.getDueDate(), task.getStatus()));
+            }
+
+            EnumMap<TaskStatus, TaskColumnPage> columns = new EnumMap<>(TaskStatus.class);
+            EnumMap<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+            grouped.forEach((status, columnTasks) -> {
+                if (columnTasks.size() > pageSize) {
+                    List<TaskCard> page = columnTasks.subList(0, pageSize);
+                    columns.put(status, new TaskColumnPage(status, page, page.getLast().id()));
+                } else {
+                    columns.put(status, new TaskColumnPage(status, columnTasks, null));
+                }
+                counts.put(status, (long) columnTasks.size());
+            });
+            return new TaskBoard(columns, counts);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springboot.taskmanager.dto.ApiBoard;
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The same dashboard, the first page of each column and the header statistics, as the HTML
+ * page renders it and as {@code /api/v1/board} writes it in JSON and CBOR: time to produce the
+ * body here, and its size next to it, {@code :raw} and {@code :gzip}, by {@link PayloadSizeProfiler}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardPayloadBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10", "1000"})
+    public int tasks;
+
+    private SpringTemplateEngine templateEngine;
+    private WebContext columnContext;
+    private WebContext pageContext;
+    private TaskBoard board;
+    private TaskStats stats;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+
+    @Setup
+    public void setUp(BenchmarkParams params) throws IOException {
+        templateEngine = BoardRenderBenchmark.BenchmarkTemplates.templateEngine();
+        columnContext = BoardRenderBenchmark.BenchmarkTemplates.webContext();
+        board = BoardRenderBenchmark.BenchmarkTemplates.board(BoardRenderBenchmark.BenchmarkTemplates.tasks(tasks), PAGE_SIZE);
+        Map<String, Object> model = BoardRenderBenchmark.BenchmarkTemplates.pageModel(board);
+        stats = (TaskStats) model.get("stats");
+        pageContext = BoardRenderBenchmark.BenchmarkTemplates.pageContext(model);
+
+        // as the application's converters are configured
+        jsonMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        byte[] body = switch (params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1)) {
+            case "json" -> json();
+            case "cbor" -> cbor();
+            default -> html();
+        };
+        PayloadSizeProfiler.record(params, "raw", body.length);
+        PayloadSizeProfiler.record(params, "gzip", gzippedSize(body));
+    }
+
+    @Benchmark
+    public byte[] html() {
+        EnumMap<TaskStatus, String> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskColumnPage page : board.columns()) {
+            columnContext.setVariable("page", page);
+            columnContext.setVariable("count", board.count(page.status()));
+            columns.put(page.status(), templateEngine.process("fragments/board-column", Set.of("column"), columnContext));
+        }
+        pageContext.setVariable("columns", columns);
+        return templateEngine.process("task-list", pageContext).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonMapper.writeValueAsBytes(ApiBoard.of(board, stats));
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cborMapper.writeValueAsBytes(ApiBoard.of(board, stats));
+    }
+
+    private static int gzippedSize(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.dto.UserRegistrationDto;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a logged-in browser loads for the dashboard: the page and its stylesheet and script,
+ * each answered by the embedded Tomcat to a client accepting gzip. The time is the full
+ * response of one request; the bytes on the wire are reported next to it as {@code :bytes}
+ * by {@link PayloadSizeProfiler}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageLoadBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest dashboard;
+    private HttpRequest stylesheet;
+    private HttpRequest script;
+
+    @Setup
+    public void setUp(BenchmarkParams params) throws IOException, InterruptedException {
+        context = BenchmarkApplication.startServer(applicationContext -> {
+        });
+
+        context.getBean(UserService.class).registerNewUser(
+                new UserRegistrationDto("page-benchmark", "page@example.com", "benchmark", "benchmark"));
+        Long userId = context.getBean(UserService.class).findUserByUsername("page-benchmark").getId();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(Task.builder().title("Task " + i).status(i % 2 == 0 ? TaskStatus.TO_DO : TaskStatus.DONE).priority(TaskPriority.LOW).build());
+        }
+        context.getBean(TaskService.class).saveTasks(tasks, userId);
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .build();
+        BenchmarkApplication.logIn(client, baseUrl, "page-benchmark", "benchmark");
+        dashboard = get(baseUrl + "/tasks");
+        stylesheet = get(baseUrl + "/css/style.css");
+        script = get(baseUrl + "/js/board.js");
+
+        HttpRequest measured = switch (params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1)) {
+            case "stylesheet" -> stylesheet;
+            case "script" -> script;
+            default -> dashboard;
+        };
+        PayloadSizeProfiler.record(params, "bytes", send(measured));
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int dashboard() throws IOException, InterruptedException {
+        return send(dashboard);
+    }
+
+    @Benchmark
+    public int stylesheet() throws IOException, InterruptedException {
+        return send(stylesheet);
+    }
+
+    @Benchmark
+    public int script() throws IOException, InterruptedException {
+        return send(script);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Accept-Encoding", "gzip").GET().build();
+    }
+
+    // HttpClient does not decompress, so the body is what went over the wire
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,48 @@
+package com.springboot.taskmanager.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Reports the payload sizes a benchmark recorded in its setup as secondary results next to
+ * its time, e.g. {@code DashboardPayloadBenchmark.json:gzip}. The {@code jmh} profile passes
+ * it with {@code -prof}. A size is the same in every iteration; an {@code @AuxCounters} event
+ * counter would sum it over the iterations instead.
+ */
+public class PayloadSizeProfiler implements InternalProfiler {
+
+    // benchmark run (method and parameters) -> size name -> bytes
+    private static final Map<String, Map<String, Long>> SIZES = new ConcurrentHashMap<>();
+
+    public static void record(BenchmarkParams params, String name, long bytes) {
+        SIZES.computeIfAbsent(params.id(), id -> new ConcurrentSkipListMap<>()).put(name, bytes);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Payload sizes recorded by the benchmark";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        return SIZES.getOrDefault(benchmarkParams.id(), Map.of()).entrySet().stream()
+                .map(size -> new ScalarResult(size.getKey(), size.getValue(), "B", AggregationPolicy.AVG))
+                .toList();
+    }
+}
@@ -0,0 +1,157 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.dto.UserRegistrationDto;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard throughput of a logged-in user at high concurrency with Tomcat on its default
+ * platform-thread pool (200 threads) and on virtual threads.
+ * <p>
+ * The in-memory database answers in microseconds, so every statement is delayed by
+ * {@code latencyMillis} to stand in for the MySQL round trip. The connection pool is sized
+ * to the client concurrency, leaving the request threads as the only limit under test.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(RequestThroughputBenchmark.CLIENTS)
+@State(Scope.Benchmark)
+public class RequestThroughputBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeBatch");
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    // on a small machine the CPU saturates first unless requests wait long enough
+    // for the 200 platform threads to become the bottleneck
+    @Param({"20", "500"})
+    public long latencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest dashboard;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkApplication.startServer(
+                applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new StatementLatency(latencyMillis)),
+                "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                "spring.datasource.hikari.maximum-pool-size=" + CLIENTS,
+                "spring.datasource.hikari.minimum-idle=" + CLIENTS);
+
+        context.getBean(UserService.class).registerNewUser(
+                new UserRegistrationDto("load-benchmark", "load@example.com", "benchmark", "benchmark"));
+        Long userId = context.getBean(UserService.class).findUserByUsername("load-benchmark").getId();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(Task.builder().title("Task " + i).status(i % 2 == 0 ? TaskStatus.TO_DO : TaskStatus.DONE).priority(TaskPriority.LOW).build());
+        }
+        context.getBean(TaskService.class).saveTasks(tasks, userId);
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .build();
+        BenchmarkApplication.logIn(client, baseUrl, "load-benchmark", "benchmark");
+        dashboard = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int dashboard() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(dashboard, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Dashboard answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    /**
+     * Sleeps before every statement execution. {@code Thread.sleep} unmounts a virtual thread
+     * just like a socket read does, so it behaves like real database latency for both modes.
+     */
+    private record StatementLatency(long millis) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? connection(connection) : result;
+                });
+            }
+            return bean;
+        }
+
+        private Connection connection(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof PreparedStatement statement ? statement(statement) : result;
+            });
+        }
+
+        private PreparedStatement statement(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                if (EXECUTE_METHODS.contains(method.getName())) {
+                    Thread.sleep(millis);
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, TargetHandler handler) {
+            InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        private interface TargetHandler {
+            Object invoke(Object target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
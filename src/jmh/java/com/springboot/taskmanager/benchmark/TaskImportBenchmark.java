@@ -0,0 +1,91 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.dto.TaskImportProgress;
+import com.springboot.taskmanager.service.TaskImporter;
+import com.springboot.taskmanager.view.TaskExportFormat;
+import com.springboot.taskmanager.view.TaskImportReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import throughput in rows per second: a 10k row file parsed and written in chunks of 1000,
+ * one transaction and JDBC batch each, with the search index following every chunk.
+ * <p>
+ * Every iteration starts on a fresh application; a few hundred thousand imported rows in the
+ * in-memory database and the search index would otherwise leave mostly garbage collection
+ * to measure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskImportBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"CSV", "NDJSON"})
+    public TaskExportFormat format;
+
+    private ConfigurableApplicationContext context;
+    private TaskImportReader taskImportReader;
+    private TaskImporter taskImporter;
+    private Long userId;
+    private byte[] file;
+
+    @Setup(Level.Trial)
+    public void createFile() {
+        StringBuilder content = new StringBuilder(format == TaskExportFormat.CSV
+                ? "title,description,priority,dueDate,status\r\n" : "");
+        for (int i = 0; i < ROWS; i++) {
+            if (format == TaskExportFormat.CSV) {
+                content.append("Imported task ").append(i)
+                        .append(",\"Moved over from the old tracker, ticket ").append(i)
+                        .append("\",MEDIUM,2026-06-30,TO_DO\r\n");
+            } else {
+                content.append("{\"title\":\"Imported task ").append(i)
+                        .append("\",\"description\":\"Moved over from the old tracker, ticket ").append(i)
+                        .append("\",\"priority\":\"MEDIUM\",\"dueDate\":\"2026-06-30\",\"status\":\"TO_DO\"}\n");
+            }
+        }
+        file = content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        taskImportReader = context.getBean(TaskImportReader.class);
+        taskImporter = context.getBean(TaskImporter.class);
+        userId = BenchmarkApplication.createUser(context, "import-benchmark").getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        // the database outlives the context (DB_CLOSE_DELAY=-1) until it is shut down
+        context.getBean(JdbcTemplate.class).execute("SHUTDOWN");
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public TaskImportProgress importFile() {
+        return taskImporter.importTasks(userId, rows -> {
+            try {
+                taskImportReader.read(format, new ByteArrayInputStream(file), rows, error -> {
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, error -> {
+        }, progress -> {
+        });
+    }
+}
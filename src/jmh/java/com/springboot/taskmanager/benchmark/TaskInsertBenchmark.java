@@ -0,0 +1,65 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-task insert throughput: one {@code saveTask} call (and transaction) per task
+ * against one {@code saveTasks} call for the whole batch with JDBC batching.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskInsertBenchmark {
+
+    private static final int BATCH = 100;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        taskService = context.getBean(TaskService.class);
+        userId = BenchmarkApplication.createUser(context, "insert-benchmark").getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleSaves() {
+        for (Task task : newTasks()) {
+            taskService.saveTask(task, userId);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Task> batchSave() {
+        return taskService.saveTasks(newTasks(), userId);
+    }
+
+    private static List<Task> newTasks() {
+        List<Task> tasks = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            tasks.add(Task.builder().title("Task " + i).status(TaskStatus.TO_DO).priority(TaskPriority.LOW).build());
+        }
+        return tasks;
+    }
+}
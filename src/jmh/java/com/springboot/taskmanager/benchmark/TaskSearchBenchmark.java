@@ -0,0 +1,114 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.TaskSearchIndex;
+import com.springboot.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task search through the in-memory {@link TaskSearchIndex} against the {@code LIKE '%word%'}
+ * scan over titles and descriptions it replaces, both returning the newest 20 matches.
+ * <p>
+ * Texts are drawn from a small vocabulary, so {@code release notes} matches a large share
+ * of the tasks, {@code kubernetes} one task in a thousand and the prefix {@code re} spans
+ * several words.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+    private static final int LIMIT = 20;
+    private static final String[] VOCABULARY = {
+            "release", "notes", "review", "deploy", "service", "database", "migration", "invoice",
+            "customer", "report", "budget", "meeting", "design", "refactor", "test", "bug", "fix",
+            "login", "search", "export", "import", "backup", "monitoring", "alert", "cache", "index",
+            "schema", "security", "audit", "onboarding", "roadmap", "sprint", "retro", "hiring"};
+
+    @Param({"1000", "100000"})
+    public int tasksPerUser;
+
+    @Param({"kubernetes", "release notes", "re"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private TaskSearchIndex searchIndex;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private String likeSql;
+    private Object[] likeArgs;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        searchIndex = context.getBean(TaskSearchIndex.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userId = BenchmarkApplication.createUser(context, "search-benchmark").getId();
+
+        TaskService taskService = context.getBean(TaskService.class);
+        Random random = new Random(42);
+        List<Task> chunk = new ArrayList<>();
+        for (int i = 0; i < tasksPerUser; i++) {
+            chunk.add(Task.builder()
+                    .title(words(random, 4))
+                    .description(words(random, 12) + (i % 1000 == 500 ? " kubernetes" : ""))
+                    .status(TaskStatus.TO_DO)
+                    .priority(TaskPriority.MEDIUM)
+                    .build());
+            if (chunk.size() == 5000 || i == tasksPerUser - 1) {
+                taskService.saveTasks(chunk, userId);
+                chunk = new ArrayList<>();
+            }
+        }
+
+        // every word has to appear in the title or the description, as in the index
+        StringBuilder sql = new StringBuilder("SELECT id, title FROM task WHERE user_id = ?");
+        List<Object> args = new ArrayList<>(List.of(userId));
+        for (String word : query.split(" ")) {
+            sql.append(" AND (LOWER(title) LIKE ? OR LOWER(description) LIKE ?)");
+            args.add("%" + word + "%");
+            args.add("%" + word + "%");
+        }
+        likeSql = sql.append(" ORDER BY id DESC LIMIT ").append(LIMIT).toString();
+        likeArgs = args.toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskCard> invertedIndex() {
+        return searchIndex.search(userId, query, LIMIT);
+    }
+
+    @Benchmark
+    public List<String> likeScan() {
+        return jdbcTemplate.query(likeSql, (row, rowNum) -> row.getString("title"), likeArgs);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+}
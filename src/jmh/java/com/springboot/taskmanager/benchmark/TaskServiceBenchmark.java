@@ -0,0 +1,102 @@
+package com.springboot.taskmanager.benchmark;
+
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service calls behind every dashboard request and task action, against H2 with the
+ * Flyway schema, for users owning a growing number of tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+
+    private static final String USERNAME = "service-benchmark";
+
+    @Param({"10", "1000", "10000"})
+    public int tasksPerUser;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private UserService userService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private long lastSeededId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        taskService = context.getBean(TaskService.class);
+        userService = context.getBean(UserService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userId = BenchmarkApplication.createUser(context, USERNAME).getId();
+
+        List<Task> tasks = new ArrayList<>(tasksPerUser);
+        for (int i = 0; i < tasksPerUser; i++) {
+            tasks.add(newTask(i));
+        }
+        lastSeededId = taskService.saveTasks(tasks, userId).getLast().getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeCreatedTasks() {
+        // keeps saveTask from growing the board past tasksPerUser between iterations
+        jdbcTemplate.update("DELETE FROM task WHERE user_id = ? AND id > ?", userId, lastSeededId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> findAllUserTasks() {
+        return taskService.findAllUserTasks(userId);
+    }
+
+    @Benchmark
+    public Task saveTask() {
+        return taskService.saveTask(newTask(0), userId);
+    }
+
+    @Benchmark
+    public boolean deleteTaskByIdAndUser(DeletableTask deletable) {
+        return taskService.deleteTaskByIdAndUser(deletable.id, userId);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userService.loadUserByUsername(USERNAME);
+    }
+
+    private static Task newTask(int i) {
+        return Task.builder().title("Task " + i).status(TaskStatus.TO_DO).priority(TaskPriority.MEDIUM).build();
+    }
+
+    @State(Scope.Thread)
+    public static class DeletableTask {
+
+        Long id;
+
+        // a fresh task per call; the insert is far slower than the timer overhead this level adds
+        @Setup(Level.Invocation)
+        public void insert(TaskServiceBenchmark benchmark) {
+            id = benchmark.taskService.saveTask(newTask(0), benchmark.userId).getId();
+        }
+    }
+}
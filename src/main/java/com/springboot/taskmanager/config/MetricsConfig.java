@@ -0,0 +1,51 @@
+package com.springboot.taskmanager.config;
+
+import com.springboot.taskmanager.metrics.RequestMetricsInterceptor;
+import com.springboot.taskmanager.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // makes @Timed on the services record timers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    // counts on the pool's connections, so JdbcTemplate statements are in the request count too
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSource(ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource
+                        ? sqlStatementCounter.getObject().countStatements(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer requestMetricsConfigurer(MeterRegistry meterRegistry, SqlStatementCounter sqlStatementCounter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry, sqlStatementCounter));
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.springboot.taskmanager.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+// runs the periodic flush of TaskStatusBuffer, the due-date reminders and the live board heartbeat
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // "today" of the reminders; tests pass a fixed one
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
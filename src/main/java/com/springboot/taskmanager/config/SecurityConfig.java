@@ -1,28 +1,99 @@
 package com.springboot.taskmanager.config;
 
+import com.springboot.taskmanager.constants.ApplicationConstants;
+import com.springboot.taskmanager.repository.UserRepository;
+import com.springboot.taskmanager.security.BCryptCalibration;
+import com.springboot.taskmanager.security.BoundedPasswordEncoder;
+import com.springboot.taskmanager.security.PasswordRehasher;
+import com.springboot.taskmanager.security.RehashingAuthenticationProvider;
+import com.springboot.taskmanager.security.TimedPasswordEncoder;
+import com.springboot.taskmanager.service.UserService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * BCrypt at the work factor this machine hashes within the target time, behind a
+     * {@link DelegatingPasswordEncoder} so stored hashes say how they were made and the
+     * outdated ones are recognised at login.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${taskmanager.password.target-hash-time:250ms}") Duration targetHashTime,
+                                           @Value("${taskmanager.password.min-strength:10}") int minStrength,
+                                           @Value("${taskmanager.password.max-strength:14}") int maxStrength,
+                                           @Value("${taskmanager.password.max-concurrent-hashes:0}") int maxConcurrentHashes) {
+        int strength = BCryptCalibration.strengthFor(targetHashTime, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // hashes stored before the {bcrypt} prefix still verify, and are upgraded on the next login
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // by default half the cores hash, the other half keeps serving the boards
+        int permits = maxConcurrentHashes > 0
+                ? maxConcurrentHashes
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(new TimedPasswordEncoder(delegating, meterRegistry), permits);
+
+        Gauge.builder("taskmanager.password.strength", () -> strength)
+                .description("BCrypt work factor chosen at startup")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.password.hashing.queued", bounded, BoundedPasswordEncoder::queueLength)
+                .description("Logins and registrations waiting for a hashing slot")
+                .register(meterRegistry);
+        return bounded;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordRehasher passwordRehasher(PasswordEncoder passwordEncoder,
+                                             UserRepository userRepository,
+                                             @Value("${taskmanager.password.rehash-queue-capacity:1000}") int queueCapacity) {
+        return new PasswordRehasher(passwordEncoder, userRepository, queueCapacity);
     }
 
+    /**
+     * Login checks passwords with {@link RehashingAuthenticationProvider} alone. It is the
+     * chain's own authentication manager, not a provider bean: the global manager built from
+     * the {@link UserService} bean is not its parent, so a wrong password is hashed once.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   UserService userService,
+                                                   PasswordEncoder passwordEncoder,
+                                                   PasswordRehasher passwordRehasher) throws Exception {
+        RehashingAuthenticationProvider provider = new RehashingAuthenticationProvider(userService, passwordRehasher);
+        provider.setPasswordEncoder(passwordEncoder);
+
         http
+                .authenticationManager(new ProviderManager(provider))
                 .authorizeHttpRequests(authorize -> authorize
-                        // main webpage, registration static public resources
-                        .requestMatchers("/", "/register", "/css/**", "/images/**").permitAll()
+                        // stylesheets, scripts and images are public and the same for everyone
+                        .requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll()
+                        // main webpage and registration
+                        .requestMatchers("/", "/register").permitAll()
+                        // actuator runs on its own port bound to 127.0.0.1 (see application.properties)
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
                         // all other requests need authorization
                         .anyRequest().authenticated()
                 )
@@ -35,6 +106,11 @@ public class SecurityConfig {
                 .logout(logout -> logout
                         .logoutSuccessUrl("/") // after logging out, redirect to main page
                         .permitAll()
+                )
+                // API clients get a 401 to log in on, not the redirect to the login page
+                .exceptionHandling(exceptions -> exceptions
+                        .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                                PathPatternRequestMatcher.withDefaults().matcher(ApplicationConstants.API_V1_URL + "/**"))
                 );
 
         // http.csrf(csrf -> csrf.disable());
@@ -8,6 +8,7 @@ public class ApplicationConstants {
     public static final String LOGIN_PAGE_URL = "/login";
     public static final String REGISTER_PAGE_URL = "/register";
     public static final String TASKS_PAGE_URL = "/tasks";
+    public static final String API_V1_URL = "/api/v1";
 
     public static final String VIEW_REGISTER = "registration";
     public static final String REDIRECT_MESSAGE = "redirect:";
@@ -0,0 +1,19 @@
+package com.springboot.taskmanager.controller;
+
+import com.springboot.taskmanager.security.AuthenticatedUser;
+import com.springboot.taskmanager.service.UserService;
+import org.springframework.security.core.Authentication;
+
+final class AuthenticatedUserIds {
+
+    private AuthenticatedUserIds() {
+    }
+
+    static Long resolve(Authentication authentication, UserService userService) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        // principals that did not come from our login flow carry no id
+        return userService.findUserByUsername(authentication.getName()).getId();
+    }
+}
@@ -0,0 +1,172 @@
+package com.springboot.taskmanager.controller;
+
+import com.springboot.taskmanager.constants.ApplicationConstants;
+import com.springboot.taskmanager.dto.NewTaskRequest;
+import com.springboot.taskmanager.dto.StatusChangeRequest;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskEventHub;
+import com.springboot.taskmanager.service.TaskImporter;
+import com.springboot.taskmanager.service.TaskSearchIndex;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import com.springboot.taskmanager.view.TaskExportFormat;
+import com.springboot.taskmanager.view.TaskExportWriter;
+import com.springboot.taskmanager.view.TaskImportReader;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JSON mutations and the live event stream of the dashboard. A change answers 204 and the new
+ * state reaches every open board of the user as a {@code task} event, so the page patches the
+ * affected card instead of following a redirect and rendering all columns again. Search is
+ * answered from the in-memory {@link TaskSearchIndex}; the export streams from a database cursor
+ * and the import back into chunked batch inserts.
+ */
+@RestController
+@RequestMapping(ApplicationConstants.TASKS_PAGE_URL)
+public class TaskApiController {
+
+    private final TaskService taskService;
+    private final UserService userService;
+    private final TaskEventHub taskEventHub;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskExportWriter taskExportWriter;
+    private final TaskImportReader taskImportReader;
+    private final TaskImporter taskImporter;
+
+    public TaskApiController(TaskService taskService,
+                             UserService userService,
+                             TaskEventHub taskEventHub,
+                             TaskSearchIndex taskSearchIndex,
+                             TaskExportWriter taskExportWriter,
+                             TaskImportReader taskImportReader,
+                             TaskImporter taskImporter) {
+        this.taskService = taskService;
+        this.userService = userService;
+        this.taskEventHub = taskEventHub;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskExportWriter = taskExportWriter;
+        this.taskImportReader = taskImportReader;
+        this.taskImporter = taskImporter;
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(Authentication authentication) {
+        return taskEventHub.subscribe(AuthenticatedUserIds.resolve(authentication, userService));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<TaskCard> search(@RequestParam("q") String query,
+                                 @RequestParam(defaultValue = "20") int limit,
+                                 Authentication authentication) {
+        return taskSearchIndex.search(AuthenticatedUserIds.resolve(authentication, userService), query, limit);
+    }
+
+    /**
+     * All tasks of the user as CSV or NDJSON. The body is written on an async thread after this
+     * method returns, inside the read-only transaction of {@link TaskService#exportTasks}.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        Authentication authentication) {
+        Optional<TaskExportFormat> exportFormat = TaskExportFormat.of(format);
+        if (exportFormat.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = AuthenticatedUserIds.resolve(authentication, userService);
+        TaskExportFormat selected = exportFormat.get();
+        return ResponseEntity.ok()
+                .contentType(selected.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("tasks." + selected.extension()).build().toString())
+                .body(out -> taskExportWriter.write(selected, out, sink -> taskService.exportTasks(userId, sink)));
+    }
+
+    /**
+     * Imports a CSV or NDJSON file sent as the request body, as written by the export. The
+     * answer is NDJSON: a line for each rejected row as the file is read and the running
+     * totals after every committed chunk, the last one with {@code "done":true}.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<StreamingResponseBody> importTasks(@RequestParam(defaultValue = "csv") String format,
+                                                             InputStream body,
+                                                             Authentication authentication) {
+        Optional<TaskExportFormat> importFormat = TaskExportFormat.of(format);
+        if (importFormat.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = AuthenticatedUserIds.resolve(authentication, userService);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    TaskImportReader.Report report = taskImportReader.report(out);
+                    try {
+                        taskImporter.importTasks(userId, rows -> {
+                            try {
+                                taskImportReader.read(importFormat.get(), body, rows, report::error);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, report::error, report::progress);
+                    } catch (UncheckedIOException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> createTask(@RequestBody NewTaskRequest request, Authentication authentication) {
+        if (request.title() == null || request.title().trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Task task = Task.builder()
+                .title(request.title().trim())
+                .status(request.status() == null ? TaskStatus.TO_DO : request.status())
+                .priority(request.priority())
+                .dueDate(request.dueDate())
+                .build();
+        taskService.saveTask(task, AuthenticatedUserIds.resolve(authentication, userService));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> updateTaskStatus(@PathVariable Long id,
+                                                 @RequestBody StatusChangeRequest request,
+                                                 Authentication authentication) {
+        if (request.status() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = AuthenticatedUserIds.resolve(authentication, userService);
+        if (taskService.updateTaskStatus(id, userId, request.status()).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTask(@PathVariable Long id, Authentication authentication) {
+        Long userId = AuthenticatedUserIds.resolve(authentication, userService);
+        if (!taskService.deleteTaskByIdAndUser(id, userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
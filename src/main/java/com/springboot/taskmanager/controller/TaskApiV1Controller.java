@@ -0,0 +1,71 @@
+package com.springboot.taskmanager.controller;
+
+import com.springboot.taskmanager.constants.ApplicationConstants;
+import com.springboot.taskmanager.dto.ApiBoard;
+import com.springboot.taskmanager.dto.ApiTaskPage;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read API of the dashboard for the mobile client and integrations, instead of the HTML page.
+ * Answers JSON, or CBOR for {@code Accept: application/cbor}; both are built from
+ * {@link com.springboot.taskmanager.dto.TaskCard} projections, never from entities. Pages are
+ * keyset pages: {@code next} of one page is the {@code cursor} of the following one.
+ */
+@RestController
+@RequestMapping(value = ApplicationConstants.API_V1_URL,
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+public class TaskApiV1Controller {
+
+    private final TaskService taskService;
+    private final UserService userService;
+    private final int pageSize;
+    private final int maxPageSize;
+
+    public TaskApiV1Controller(TaskService taskService,
+                               UserService userService,
+                               @Value("${taskmanager.board.page-size:50}") int pageSize,
+                               @Value("${taskmanager.api.max-page-size:200}") int maxPageSize) {
+        this.taskService = taskService;
+        this.userService = userService;
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * The user's tasks in id order, of one column if {@code status} is given.
+     */
+    @GetMapping("/tasks")
+    public ResponseEntity<ApiTaskPage> tasks(@RequestParam(required = false) TaskStatus status,
+                                             @RequestParam(required = false) Long cursor,
+                                             @RequestParam(required = false) Integer limit,
+                                             Authentication authentication) {
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = AuthenticatedUserIds.resolve(authentication, userService);
+        int size = limit == null ? pageSize : Math.min(limit, maxPageSize);
+        return ResponseEntity.ok(ApiTaskPage.of(taskService.findColumnPage(userId, status, cursor, size)));
+    }
+
+    /**
+     * The first page of every column and the header statistics, as the dashboard shows them.
+     */
+    @GetMapping("/board")
+    public ApiBoard board(Authentication authentication) {
+        Long userId = AuthenticatedUserIds.resolve(authentication, userService);
+        TaskStats stats = taskService.findStats(userId);
+        return ApiBoard.of(taskService.findBoard(userId, pageSize, stats), stats);
+    }
+}
@@ -1,16 +1,32 @@
 package com.springboot.taskmanager.controller;
 
 import com.springboot.taskmanager.constants.ApplicationConstants;
+import com.springboot.taskmanager.dto.TaskStats;
 import com.springboot.taskmanager.entity.Task;
-import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.service.BoardVersions;
 import com.springboot.taskmanager.service.TaskService;
 import com.springboot.taskmanager.service.UserService;
+import com.springboot.taskmanager.view.BoardColumnCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -20,69 +36,134 @@ public class TaskController {
 
     private final TaskService taskService;
     private final UserService userService;
+    private final BoardVersions boardVersions;
+    private final BoardColumnCache boardColumnCache;
+    private final Clock clock;
+    private final int pageSize;
+    private final int maxBatchSize;
 
-    public TaskController(TaskService taskService, UserService userService) {
+    public TaskController(TaskService taskService,
+                          UserService userService,
+                          BoardVersions boardVersions,
+                          BoardColumnCache boardColumnCache,
+                          Clock clock,
+                          @Value("${taskmanager.board.page-size:50}") int pageSize,
+                          @Value("${taskmanager.batch.max-size:1000}") int maxBatchSize) {
         this.taskService = taskService;
         this.userService = userService;
+        this.boardVersions = boardVersions;
+        this.boardColumnCache = boardColumnCache;
+        this.clock = clock;
+        this.pageSize = pageSize;
+        this.maxBatchSize = maxBatchSize;
     }
 
-    private User getAuthenticatedUser(Authentication authentication) {
-        String username = authentication.getName();
-        return userService.findUserByUsername(username);
+    private Long getAuthenticatedUserId(Authentication authentication) {
+        return AuthenticatedUserIds.resolve(authentication, userService);
     }
 
     @GetMapping
-    public String listTasks(Model model, Authentication authentication) {
-        User user = getAuthenticatedUser(authentication);
+    public String listTasks(Model model,
+                            Authentication authentication,
+                            HttpServletRequest request,
+                            HttpServletResponse response,
+                            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId(authentication);
 
-        model.addAttribute("tasks", taskService.findAllUserTasks(user));
+        // a page carrying a flash message is shown once and must not be revalidated later
+        if (RequestContextUtils.getInputFlashMap(request) != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        } else {
+            // read before the board, so the validator never claims newer data than the page holds
+            BoardVersions.Version version = boardVersions.current(userId);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+            if (webRequest.checkNotModified(boardETag(version, request), version.modifiedAt())) {
+                return null;
+            }
+        }
+
+        // one statistics read for the header and the counts of whichever columns are rendered
+        TaskStats stats = taskService.findStats(userId);
+        model.addAttribute("columns", boardColumnCache.columns(userId,
+                statuses -> taskService.findBoard(userId, pageSize, statuses, stats), request, response));
+        model.addAttribute("stats", stats);
+        // board.js counts the cards of live events as overdue against the server's day
+        model.addAttribute("today", LocalDate.now(clock));
 
         model.addAttribute("task", Task.builder().build());
 
         return "task-list";
     }
 
+    /**
+     * The page embeds the session's CSRF token, so the tag names the session besides the
+     * board version; a new login never revalidates a page rendered for the old session.
+     * The day is part of it because the overdue count changes overnight without any write.
+     */
+    private String boardETag(BoardVersions.Version version, HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        String sessionTag = session == null ? "0" : Integer.toHexString(session.getId().hashCode());
+        long day = LocalDate.now(clock).toEpochDay();
+        return "W/\"" + boardVersions.bootId() + "-" + version.counter() + "-" + sessionTag + "-" + day + "\"";
+    }
+
+    @GetMapping("/column")
+    public String loadColumnPage(@RequestParam("status") TaskStatus status,
+                                 @RequestParam("after") Long afterId,
+                                 Model model,
+                                 Authentication authentication) {
+        Long userId = getAuthenticatedUserId(authentication);
+
+        model.addAttribute("page", taskService.findColumnPage(userId, status, afterId, pageSize));
+
+        return "fragments/task-cards :: cards";
+    }
+
     @PostMapping("/save")
     public String saveTask(@ModelAttribute("task") Task task,
+                           BindingResult bindingResult,
                            Authentication authentication,
                            RedirectAttributes redirectAttributes) {
 
-        User user = getAuthenticatedUser(authentication);
+        Long userId = getAuthenticatedUserId(authentication);
 
         if (task.getId() != null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error: Cannot update through the Quick Add form.");
             return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
         }
 
+        // unknown status or priority values fail to convert to the enums and never reach the database
+        if (bindingResult.hasFieldErrors("status") || bindingResult.hasFieldErrors("priority")) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Invalid task status or priority.");
+            return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+        }
+
         if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
             redirectAttributes.addFlashAttribute("errorMessage", "Task title cannot be empty.");
             return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
         }
 
-        if (task.getStatus() == null || task.getStatus().isEmpty()) {
-            task.setStatus("TO_DO");
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatus.TO_DO);
         }
 
-        taskService.saveTask(task, user);
+        taskService.saveTask(task, userId);
         redirectAttributes.addFlashAttribute("successMessage", "New task added successfully!");
         return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
     }
 
     @PostMapping("/update-status")
     public String updateTaskStatus(@RequestParam("id") Long taskId,
-                                   @RequestParam("newStatus") String newStatus,
+                                   @RequestParam("newStatus") TaskStatus newStatus,
                                    Authentication authentication,
                                    RedirectAttributes redirectAttributes) {
 
-        User user = getAuthenticatedUser(authentication);
-        Optional<Task> optionalTask = taskService.findTaskByIdAndUser(taskId, user);
+        Long userId = getAuthenticatedUserId(authentication);
+        Optional<String> movedTaskTitle = taskService.updateTaskStatus(taskId, userId, newStatus);
 
-        if (optionalTask.isPresent()) {
-            Task task = optionalTask.get();
-            task.setStatus(newStatus);
-            taskService.saveTask(task, user);
+        if (movedTaskTitle.isPresent()) {
             redirectAttributes.addFlashAttribute("successMessage",
-                    String.format("Task '%s' moved to %s.", task.getTitle(), newStatus));
+                    String.format("Task '%s' moved to %s.", movedTaskTitle.get(), newStatus));
         } else {
             redirectAttributes.addFlashAttribute("errorMessage", "Task not found or unauthorized access.");
         }
@@ -96,9 +177,9 @@ public class TaskController {
                              Authentication authentication,
                              RedirectAttributes redirectAttributes) {
 
-        User user = getAuthenticatedUser(authentication);
+        Long userId = getAuthenticatedUserId(authentication);
 
-        if (taskService.deleteTaskByIdAndUser(id, user)) {
+        if (taskService.deleteTaskByIdAndUser(id, userId)) {
             redirectAttributes.addFlashAttribute("successMessage", "Task deleted successfully.");
         } else {
             redirectAttributes.addFlashAttribute("errorMessage", "Task not found or unauthorized access.");
@@ -106,4 +187,81 @@ public class TaskController {
 
         return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch/save")
+    public String saveTasks(@RequestParam("titles") String titles,
+                            @RequestParam(value = "status", defaultValue = "TO_DO") TaskStatus status,
+                            @RequestParam(value = "priority", required = false) TaskPriority priority,
+                            Authentication authentication,
+                            RedirectAttributes redirectAttributes) {
+
+        Long userId = getAuthenticatedUserId(authentication);
+
+        // one task per non-blank line
+        List<Task> tasks = titles.lines()
+                .map(String::trim)
+                .filter(title -> !title.isEmpty())
+                .map(title -> Task.builder().title(title).status(status).priority(priority).build())
+                .toList();
+
+        if (tasks.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Task title cannot be empty.");
+            return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+        }
+        if (tasks.size() > maxBatchSize) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    String.format("Cannot add more than %d tasks at once.", maxBatchSize));
+            return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+        }
+
+        taskService.saveTasks(tasks, userId);
+        redirectAttributes.addFlashAttribute("successMessage", String.format("%d tasks added.", tasks.size()));
+        return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+    }
+
+    @PostMapping("/batch/update-status")
+    public String updateTaskStatuses(@RequestParam(value = "ids", required = false) List<Long> taskIds,
+                                     @RequestParam("newStatus") TaskStatus newStatus,
+                                     Authentication authentication,
+                                     RedirectAttributes redirectAttributes) {
+
+        if (!isValidBatch(taskIds, redirectAttributes)) {
+            return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+        }
+
+        Long userId = getAuthenticatedUserId(authentication);
+        int moved = taskService.updateTaskStatuses(taskIds, userId, newStatus);
+
+        redirectAttributes.addFlashAttribute("successMessage", String.format("%d tasks moved to %s.", moved, newStatus));
+        return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+    }
+
+    @PostMapping("/batch/delete")
+    public String deleteTasks(@RequestParam(value = "ids", required = false) List<Long> taskIds,
+                              Authentication authentication,
+                              RedirectAttributes redirectAttributes) {
+
+        if (!isValidBatch(taskIds, redirectAttributes)) {
+            return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+        }
+
+        Long userId = getAuthenticatedUserId(authentication);
+        int deleted = taskService.deleteTasks(taskIds, userId);
+
+        redirectAttributes.addFlashAttribute("successMessage", String.format("%d tasks deleted.", deleted));
+        return ApplicationConstants.REDIRECT_MESSAGE + ApplicationConstants.TASKS_PAGE_URL;
+    }
+
+    private boolean isValidBatch(List<Long> taskIds, RedirectAttributes redirectAttributes) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "No tasks selected.");
+            return false;
+        }
+        if (taskIds.size() > maxBatchSize) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    String.format("Cannot change more than %d tasks at once.", maxBatchSize));
+            return false;
+        }
+        return true;
+    }
+}
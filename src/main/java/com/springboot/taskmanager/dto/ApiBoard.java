@@ -0,0 +1,21 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What the dashboard page shows, for clients that do not render HTML: the first page of
+ * each column and the header statistics.
+ */
+public record ApiBoard(Map<TaskStatus, ApiTaskPage> columns, TaskStats stats) {
+
+    public static ApiBoard of(TaskBoard board, TaskStats stats) {
+        EnumMap<TaskStatus, ApiTaskPage> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskColumnPage page : board.columns()) {
+            columns.put(page.status(), ApiTaskPage.of(page));
+        }
+        return new ApiBoard(columns, stats);
+    }
+}
@@ -0,0 +1,20 @@
+package com.springboot.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A task as the {@code /api/v1} endpoints write it. Built from the {@link TaskCard}
+ * projection, so no entity and no lazy owner ever reaches the serializer; a missing
+ * priority or due date is left out rather than written as {@code null}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiTask(Long id, String title, TaskStatus status, TaskPriority priority, LocalDate dueDate) {
+
+    public static ApiTask of(TaskCard card) {
+        return new ApiTask(card.id(), card.title(), card.status(), card.priority(), card.dueDate());
+    }
+}
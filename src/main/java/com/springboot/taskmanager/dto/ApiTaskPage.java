@@ -0,0 +1,16 @@
+package com.springboot.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of tasks; {@code next} is the cursor for the following page and absent on the last.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiTaskPage(List<ApiTask> tasks, Long next) {
+
+    public static ApiTaskPage of(TaskColumnPage page) {
+        return new ApiTaskPage(page.tasks().stream().map(ApiTask::of).toList(), page.nextCursor());
+    }
+}
@@ -0,0 +1,7 @@
+package com.springboot.taskmanager.dto;
+
+import java.time.LocalDate;
+
+// a task the reminder scan passed; (dueDate, id) is its position in the scan
+public record DueTask(Long id, LocalDate dueDate) {
+}
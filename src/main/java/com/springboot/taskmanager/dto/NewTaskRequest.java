@@ -0,0 +1,12 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * JSON body of the dashboard's quick add; a missing status puts the task in the To Do column.
+ */
+public record NewTaskRequest(String title, TaskStatus status, TaskPriority priority, LocalDate dueDate) {
+}
@@ -0,0 +1,6 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+
+public record StatusCount(TaskStatus status, long count) {
+}
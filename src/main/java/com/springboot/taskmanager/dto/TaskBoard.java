@@ -0,0 +1,27 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.util.Collection;
+import java.util.EnumMap;
+
+/**
+ * Dashboard model: the first page of every Kanban column plus the total number
+ * of tasks per status, grouped once on the server so the template only walks
+ * each column a single time.
+ */
+public record TaskBoard(EnumMap<TaskStatus, TaskColumnPage> columnsByStatus,
+                        EnumMap<TaskStatus, Long> counts) {
+
+    public Collection<TaskColumnPage> columns() {
+        return columnsByStatus.values();
+    }
+
+    public TaskColumnPage column(TaskStatus status) {
+        return columnsByStatus.get(status);
+    }
+
+    public long count(TaskStatus status) {
+        return counts.getOrDefault(status, 0L);
+    }
+}
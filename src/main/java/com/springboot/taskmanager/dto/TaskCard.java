@@ -0,0 +1,22 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * The columns a board card shows, read straight from the query result: no managed entity,
+ * no owner proxy and no description.
+ */
+public record TaskCard(Long id, String title, TaskPriority priority, LocalDate dueDate, TaskStatus status) {
+
+    public static TaskCard of(Task task) {
+        return new TaskCard(task.getId(), task.getTitle(), task.getPriority(), task.getDueDate(), task.getStatus());
+    }
+
+    public TaskCard withStatus(TaskStatus newStatus) {
+        return new TaskCard(id, title, priority, dueDate, newStatus);
+    }
+}
@@ -0,0 +1,16 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.util.List;
+
+/**
+ * One page of a Kanban column, or of all columns when {@code status} is {@code null}.
+ * {@code nextCursor} is the id to continue after, or {@code null} when there are no more tasks.
+ */
+public record TaskColumnPage(TaskStatus status, List<TaskCard> tasks, Long nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
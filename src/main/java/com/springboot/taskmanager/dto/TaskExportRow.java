@@ -0,0 +1,14 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * One line of a task export, read straight from the cursor: never a managed entity, so the
+ * persistence context stays empty however many rows pass through.
+ */
+public record TaskExportRow(Long id, String title, String description,
+                            TaskPriority priority, LocalDate dueDate, TaskStatus status) {
+}
@@ -0,0 +1,7 @@
+package com.springboot.taskmanager.dto;
+
+/**
+ * A record of an uploaded task file that was not imported; the rest of the file still is.
+ */
+public record TaskImportError(long line, String error) {
+}
@@ -0,0 +1,9 @@
+package com.springboot.taskmanager.dto;
+
+/**
+ * Running totals of an import, reported after every committed chunk and once more at the end.
+ *
+ * @param done {@code true} on the last report only
+ */
+public record TaskImportProgress(long imported, long failed, boolean done) {
+}
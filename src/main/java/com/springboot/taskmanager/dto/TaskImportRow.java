@@ -0,0 +1,11 @@
+package com.springboot.taskmanager.dto;
+
+/**
+ * One record of an uploaded task file, with its fields as text exactly as they were found;
+ * {@code TaskImporter} validates and converts them.
+ *
+ * @param line the line of the file the record starts on, for error reports
+ */
+public record TaskImportRow(long line, String title, String description,
+                            String priority, String dueDate, String status) {
+}
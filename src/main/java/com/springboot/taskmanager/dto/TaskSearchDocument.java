@@ -0,0 +1,17 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A task as the search index takes it in at startup: the card, its owner and the text to index.
+ */
+public record TaskSearchDocument(Long userId, Long id, String title, String description,
+                                 TaskPriority priority, LocalDate dueDate, TaskStatus status) {
+
+    public TaskCard card() {
+        return new TaskCard(id, title, priority, dueDate, status);
+    }
+}
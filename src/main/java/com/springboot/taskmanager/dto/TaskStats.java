@@ -0,0 +1,27 @@
+package com.springboot.taskmanager.dto;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+
+/**
+ * The dashboard header of one user: tasks per column, open tasks past their due date and
+ * the share of tasks done.
+ */
+public record TaskStats(long toDo, long inProgress, long done, long overdue) {
+
+    public long count(TaskStatus status) {
+        return switch (status) {
+            case TO_DO -> toDo;
+            case IN_PROGRESS -> inProgress;
+            case DONE -> done;
+        };
+    }
+
+    public long total() {
+        return toDo + inProgress + done;
+    }
+
+    // whole percent, rounded down so 99 of 100 does not show as complete
+    public int completionRate() {
+        return total() == 0 ? 0 : (int) (done * 100 / total());
+    }
+}
@@ -14,8 +14,11 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class Task {
 
+    // identity columns disable JDBC insert batching, ids are handed out in blocks from id_generator
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_id")
+    @TableGenerator(name = "task_id", table = "id_generator", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "task", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,11 +29,12 @@ public class Task {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
-    private String priority;
+    // TINYINT codes, see TaskPriorityConverter and TaskStatusConverter
+    private TaskPriority priority;
 
     @Builder.Default
     @Column(nullable = false)
-    private String status = "TO_DO";
+    private TaskStatus status = TaskStatus.TO_DO;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -68,19 +72,19 @@ public class Task {
         this.dueDate = dueDate;
     }
 
-    public String getPriority() {
+    public TaskPriority getPriority() {
         return priority;
     }
 
-    public void setPriority(String priority) {
+    public void setPriority(TaskPriority priority) {
         this.priority = priority;
     }
 
-    public String getStatus() {
+    public TaskStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(TaskStatus status) {
         this.status = status;
     }
 
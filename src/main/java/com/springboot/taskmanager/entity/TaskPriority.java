@@ -0,0 +1,36 @@
+package com.springboot.taskmanager.entity;
+
+public enum TaskPriority {
+
+    LOW((byte) 0, "Low"),
+    MEDIUM((byte) 1, "Medium"),
+    HIGH((byte) 2, "High");
+
+    private final byte code;
+    private final String label;
+
+    TaskPriority(byte code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    /**
+     * Value stored in the {@code task.priority} TINYINT column.
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static TaskPriority fromCode(byte code) {
+        for (TaskPriority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task priority code: " + code);
+    }
+}
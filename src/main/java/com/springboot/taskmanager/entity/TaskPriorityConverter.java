@@ -0,0 +1,21 @@
+package com.springboot.taskmanager.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link TaskPriority} as its fixed TINYINT code.
+ */
+@Converter(autoApply = true)
+public class TaskPriorityConverter implements AttributeConverter<TaskPriority, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(TaskPriority priority) {
+        return priority == null ? null : priority.getCode();
+    }
+
+    @Override
+    public TaskPriority convertToEntityAttribute(Byte code) {
+        return code == null ? null : TaskPriority.fromCode(code);
+    }
+}
@@ -0,0 +1,62 @@
+package com.springboot.taskmanager.entity;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public enum TaskStatus {
+
+    TO_DO((byte) 0, "To Do", "todo"),
+    IN_PROGRESS((byte) 1, "In Progress", "in-progress"),
+    DONE((byte) 2, "Done", "done");
+
+    private static final Map<TaskStatus, List<TaskStatus>> OTHERS = new EnumMap<>(TaskStatus.class);
+
+    static {
+        for (TaskStatus status : values()) {
+            OTHERS.put(status, Arrays.stream(values()).filter(other -> other != status).toList());
+        }
+    }
+
+    private final byte code;
+    private final String label;
+    private final String cssClass;
+
+    TaskStatus(byte code, String label, String cssClass) {
+        this.code = code;
+        this.label = label;
+        this.cssClass = cssClass;
+    }
+
+    /**
+     * Value stored in the {@code task.status} TINYINT column.
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getCssClass() {
+        return cssClass;
+    }
+
+    /**
+     * Statuses a task in this status can be moved to.
+     */
+    public List<TaskStatus> others() {
+        return OTHERS.get(this);
+    }
+
+    public static TaskStatus fromCode(byte code) {
+        for (TaskStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task status code: " + code);
+    }
+}
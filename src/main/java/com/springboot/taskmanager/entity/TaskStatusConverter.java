@@ -0,0 +1,22 @@
+package com.springboot.taskmanager.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link TaskStatus} as its fixed TINYINT code, so reordering or renaming
+ * constants never changes what existing rows mean.
+ */
+@Converter(autoApply = true)
+public class TaskStatusConverter implements AttributeConverter<TaskStatus, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(TaskStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public TaskStatus convertToEntityAttribute(Byte code) {
+        return code == null ? null : TaskStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,38 @@
+package com.springboot.taskmanager.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+/**
+ * One card that appeared on, moved across or left a user's board. Published by
+ * {@code TaskService} and pushed to the open dashboards of the owner as JSON.
+ *
+ * @param card           the card as it is now; for {@link Type#DELETED} the card as it was
+ * @param previousStatus the column the card left, {@code null} for {@link Type#CREATED}
+ * @param description    the description of a created task, for the search index only
+ */
+public record TaskChangedEvent(@JsonIgnore Long userId, Type type, TaskCard card, TaskStatus previousStatus,
+                               @JsonIgnore String description) {
+
+    public enum Type {
+        CREATED, MOVED, DELETED
+    }
+
+    public static TaskChangedEvent created(Long userId, Task task) {
+        return new TaskChangedEvent(userId, Type.CREATED, TaskCard.of(task), null, task.getDescription());
+    }
+
+    public static TaskChangedEvent created(Long userId, TaskCard card) {
+        return new TaskChangedEvent(userId, Type.CREATED, card, null, null);
+    }
+
+    public static TaskChangedEvent moved(Long userId, TaskCard card, TaskStatus newStatus) {
+        return new TaskChangedEvent(userId, Type.MOVED, card.withStatus(newStatus), card.status(), null);
+    }
+
+    public static TaskChangedEvent deleted(Long userId, TaskCard card) {
+        return new TaskChangedEvent(userId, Type.DELETED, card, card.status(), null);
+    }
+}
@@ -0,0 +1,181 @@
+package com.springboot.taskmanager.event;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the open server-sent event streams of every dashboard, grouped by user, and pushes
+ * each {@link TaskChangedEvent} to the streams of the task owner once the change is committed,
+ * and each {@link TasksImportedEvent} as one {@code import} event with the counts per column.
+ * <p>
+ * The committing thread only queues the event per stream; a pool of
+ * {@code taskmanager.events.senders} threads writes it, one stream at a time each, so a slow
+ * client holds up neither the request that made the change nor the other dashboards. A stream
+ * more than {@code taskmanager.events.max-queued} events behind is closed, and its EventSource
+ * reconnects. Every {@code taskmanager.events.heartbeat-interval} each stream gets a comment,
+ * which keeps proxies from closing an idle one and finds the streams whose tab is gone.
+ */
+@Component
+public class TaskEventHub {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final int maxQueued;
+    private final ThreadPoolExecutor executor;
+
+    public TaskEventHub(@Value("${taskmanager.events.timeout:30m}") Duration timeout,
+                        @Value("${taskmanager.events.senders:2}") int senders,
+                        @Value("${taskmanager.events.max-queued:100}") int maxQueued) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxQueued = maxQueued;
+        // a stream is queued here at most once at a time, so the queue is bounded by the streams
+        this.executor = new ThreadPoolExecutor(senders, senders, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-events");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+        // the browser's EventSource reconnects by itself after a timeout or a dropped connection
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    // rolled back changes never reach the board; calls outside a transaction are sent right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        send(event.userId(), () -> SseEmitter.event().name("task").data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        send(event.userId(), () -> SseEmitter.event().name("import").data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.events.heartbeat-interval:25s}",
+            initialDelayString = "${taskmanager.events.heartbeat-interval:25s}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers ->
+                userSubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    int subscriberCount(Long userId) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        return userSubscribers == null ? 0 : userSubscribers.size();
+    }
+
+    // an event builder is written once, so every stream gets its own
+    private void send(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        userSubscribers.forEach(subscriber -> subscriber.offer(event.get()));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * One stream and the events not yet written to it, drained by one sender at a time so
+     * they arrive in order.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (queued.incrementAndGet() > maxQueued) {
+                // too far behind to catch up; the reconnect starts it afresh
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            queue.add(event);
+            drainLater();
+        }
+
+        @Override
+        public void run() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // the tab is gone; its EventSource will subscribe again if it comes back
+                    remove(this);
+                    queue.clear();
+                    return;
+                }
+            }
+            draining.set(false);
+            // an event queued after the last poll and before the flag was cleared
+            if (!queue.isEmpty()) {
+                drainLater();
+            }
+        }
+
+        private void drainLater() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // shutting down; the stream closes with the application
+                }
+            }
+        }
+    }
+}
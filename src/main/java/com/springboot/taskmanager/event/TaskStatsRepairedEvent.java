@@ -0,0 +1,14 @@
+package com.springboot.taskmanager.event;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.util.Set;
+
+/**
+ * A user's statistics row that the reconciliation found off and counted again. Nothing on
+ * the board moved, but the dashboard shows the counts, so its cached versions are out of date.
+ *
+ * @param statuses the columns whose count changed; empty if only the overdue count did
+ */
+public record TaskStatsRepairedEvent(Long userId, Set<TaskStatus> statuses) {
+}
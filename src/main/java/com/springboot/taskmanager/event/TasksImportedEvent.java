@@ -0,0 +1,29 @@
+package com.springboot.taskmanager.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskStatus;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One committed chunk of an import, published once for all of its tasks instead of a
+ * {@link TaskChangedEvent} per task. The open dashboards receive the number of new cards
+ * per column only.
+ *
+ * @param tasks the imported tasks with their ids, not managed by any persistence context
+ */
+public record TasksImportedEvent(@JsonIgnore Long userId, @JsonIgnore List<Task> tasks) {
+
+    @JsonProperty
+    public Map<TaskStatus, Integer> counts() {
+        Map<TaskStatus, Integer> counts = new EnumMap<>(TaskStatus.class);
+        for (Task task : tasks) {
+            counts.merge(task.getStatus(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
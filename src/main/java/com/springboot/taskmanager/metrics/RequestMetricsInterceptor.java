@@ -0,0 +1,73 @@
+package com.springboot.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per handled request the number of SQL statements it ran and, for requests that
+ * render a template, how long the rendering took. Together with {@code http.server.requests}
+ * this splits a slow request into database, template and everything else.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String RENDER_START = RequestMetricsInterceptor.class.getName() + ".RENDER_START";
+    private static final String VIEW_NAME = RequestMetricsInterceptor.class.getName() + ".VIEW_NAME";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry, SqlStatementCounter sqlStatementCounter) {
+        this.meterRegistry = meterRegistry;
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlStatementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        // the view renders between postHandle and afterCompletion
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        // counted until here, so lazy loads while rendering are included
+        int statements = sqlStatementCounter.stop();
+        DistributionSummary.builder("taskmanager.request.sql.statements")
+                .description("SQL statements run while handling a request")
+                .tag("uri", uri(request))
+                .register(meterRegistry)
+                .record(statements);
+
+        if (request.getAttribute(RENDER_START) instanceof Long renderStart) {
+            Timer.builder("taskmanager.view.render")
+                    .description("Template rendering time")
+                    .tag("view", (String) request.getAttribute(VIEW_NAME))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - renderStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.springboot.taskmanager.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Counts the SQL statements prepared on the current thread between {@link #start()} and
+ * {@link #stop()}. Statements outside such a window are not counted.
+ * <p>
+ * The count is taken on the connections of the {@link DataSource} wrapped by
+ * {@link #countStatements(DataSource)}, so Hibernate, {@code JdbcTemplate} and Flyway are
+ * counted alike; a JDBC batch is one statement.
+ */
+public class SqlStatementCounter {
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    public void start() {
+        count.set(new int[1]);
+    }
+
+    public int stop() {
+        int[] statements = count.get();
+        count.remove();
+        return statements == null ? 0 : statements[0];
+    }
+
+    public DataSource countStatements(DataSource dataSource) {
+        return new CountingDataSource(dataSource);
+    }
+
+    void prepared() {
+        int[] statements = count.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+    }
+
+    private final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            prepared();
+                        } else if (method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        } else if (method.getName().equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -1,14 +1,115 @@
 package com.springboot.taskmanager.repository;
 
+import com.springboot.taskmanager.dto.DueTask;
+import com.springboot.taskmanager.dto.StatusCount;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import com.springboot.taskmanager.dto.TaskSearchDocument;
 import com.springboot.taskmanager.entity.Task;
-import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.entity.TaskStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    List<Task> findByUser(User user);
+    // the entities are only read, so Hibernate keeps no snapshot for dirty checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Task> findByUserId(Long userId);
 
-    Task findByIdAndUser(Long id, User user);
+    Task findByIdAndUserId(Long id, Long userId);
+
+    @Query("select new com.springboot.taskmanager.dto.TaskCard(t.id, t.title, t.priority, t.dueDate, t.status) " +
+            "from Task t where t.id = :id and t.user.id = :userId")
+    Optional<TaskCard> findCardByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // SELECT ... FOR UPDATE: the card stays as read until the move or delete that follows commits,
+    // so its event and statistics start from the right column
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.springboot.taskmanager.dto.TaskCard(t.id, t.title, t.priority, t.dueDate, t.status) " +
+            "from Task t where t.id = :id and t.user.id = :userId")
+    Optional<TaskCard> lockCardByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.springboot.taskmanager.dto.TaskCard(t.id, t.title, t.priority, t.dueDate, t.status) " +
+            "from Task t where t.id in :ids and t.user.id = :userId")
+    List<TaskCard> lockCardsByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // ownership check and write in one statement; returns the number of rows changed
+    @Modifying
+    @Query("update Task t set t.status = :status where t.id = :id and t.user.id = :userId")
+    int updateStatusByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("status") TaskStatus status);
+
+    @Modifying
+    @Query("delete from Task t where t.id = :id and t.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Task t set t.status = :status where t.id in :ids and t.user.id = :userId")
+    int updateStatusByIdInAndUserId(@Param("ids") Collection<Long> ids,
+                                    @Param("userId") Long userId,
+                                    @Param("status") TaskStatus status);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids and t.user.id = :userId")
+    int deleteByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // keyset (seek) page: cost depends on the page size, not on how deep the cursor is
+    @Query("select new com.springboot.taskmanager.dto.TaskCard(t.id, t.title, t.priority, t.dueDate, t.status) " +
+            "from Task t where t.user.id = :userId and t.status = :status and t.id > :afterId order by t.id")
+    List<TaskCard> findColumnPage(@Param("userId") Long userId,
+                              @Param("status") TaskStatus status,
+                              @Param("afterId") long afterId,
+                              Limit limit);
+
+    // the same seek across all columns, for the API
+    @Query("select new com.springboot.taskmanager.dto.TaskCard(t.id, t.title, t.priority, t.dueDate, t.status) " +
+            "from Task t where t.user.id = :userId and t.id > :afterId order by t.id")
+    List<TaskCard> findTaskPage(@Param("userId") Long userId,
+                                @Param("afterId") long afterId,
+                                Limit limit);
+
+    // open tasks of all users due up to :until, in (dueDate, id) order after the given position;
+    // a range scan of IDX_TASK_DUE_ID that starts where the previous page ended
+    @Query("select new com.springboot.taskmanager.dto.DueTask(t.id, t.dueDate) from Task t " +
+            "where t.dueDate >= :afterDate and t.dueDate <= :until " +
+            "and (t.dueDate > :afterDate or t.id > :afterId) and t.status <> :done " +
+            "order by t.dueDate, t.id")
+    List<DueTask> findDuePage(@Param("afterDate") LocalDate afterDate,
+                              @Param("afterId") long afterId,
+                              @Param("until") LocalDate until,
+                              @Param("done") TaskStatus done,
+                              Limit limit);
+
+    @Query("select new com.springboot.taskmanager.dto.StatusCount(t.status, count(t)) " +
+            "from Task t where t.user.id = :userId group by t.status")
+    List<StatusCount> countByStatus(@Param("userId") Long userId);
+
+    // one user's tasks for the export, fetched from the cursor 1000 rows at a time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.springboot.taskmanager.dto.TaskExportRow(t.id, t.title, t.description, t.priority, t.dueDate, t.status) " +
+            "from Task t where t.user.id = :userId order by t.id")
+    Stream<TaskExportRow> streamExportRowsByUserId(@Param("userId") Long userId);
+
+    // every task once, for rebuilding the search index; the caller closes the stream inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")
+    })
+    @Query("select new com.springboot.taskmanager.dto.TaskSearchDocument(" +
+            "t.user.id, t.id, t.title, t.description, t.priority, t.dueDate, t.status) from Task t")
+    Stream<TaskSearchDocument> streamSearchDocuments();
 }
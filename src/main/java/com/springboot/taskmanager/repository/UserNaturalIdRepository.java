@@ -0,0 +1,11 @@
+package com.springboot.taskmanager.repository;
+
+import com.springboot.taskmanager.entity.User;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Loads the user through its {@code username} natural id, or returns {@code null}.
+     */
+    User findByUsername(String username);
+}
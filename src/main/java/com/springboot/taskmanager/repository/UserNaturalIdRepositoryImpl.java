@@ -0,0 +1,27 @@
+package com.springboot.taskmanager.repository;
+
+import com.springboot.taskmanager.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Resolves usernames through Hibernate's natural-id API instead of a derived query: a cached
+ * username costs no query parsing, no flush and, with the user itself cached, no SQL at all.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    public UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .load(username);
+    }
+}
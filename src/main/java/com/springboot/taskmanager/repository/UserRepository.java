@@ -2,8 +2,18 @@ package com.springboot.taskmanager.repository;
 
 import com.springboot.taskmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
-    User findByUsername(String username);
+    // compare-and-set: a password changed in the meantime is left alone
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.username = :username and u.password = :oldPassword")
+    int replacePassword(@Param("username") String username,
+                        @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
 }
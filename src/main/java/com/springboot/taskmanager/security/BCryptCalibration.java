@@ -0,0 +1,36 @@
+package com.springboot.taskmanager.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt work factor for this machine: the highest strength whose hash still
+ * takes no longer than the target. Each step of the strength doubles the hashing time, so
+ * one measured hash at the minimum strength is enough to extrapolate.
+ */
+public final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptCalibration() {
+    }
+
+    public static int strengthFor(Duration targetHashTime, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        // the first hash also pays for class loading and an unoptimized Blowfish
+        probe.encode(SAMPLE_PASSWORD);
+
+        long start = System.nanoTime();
+        probe.encode(SAMPLE_PASSWORD);
+        long hashNanos = Math.max(1, System.nanoTime() - start);
+
+        int strength = minStrength;
+        long target = targetHashTime.toNanos();
+        while (strength < maxStrength && hashNanos * 2 <= target) {
+            hashNanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
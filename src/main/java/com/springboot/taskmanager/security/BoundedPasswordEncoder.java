@@ -0,0 +1,55 @@
+package com.springboot.taskmanager.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Lets at most a fixed number of hashes run at once; further logins and registrations wait
+ * in line, so a login storm cannot take every core away from the task traffic. A fair
+ * semaphore rather than a lock keeps waiting virtual threads unmounted.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrentHashes) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentHashes, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return withPermit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return withPermit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+    private <T> T withPermit(Supplier<T> hashing) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash a password", e);
+        }
+        try {
+            return hashing.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.springboot.taskmanager.security;
+
+import com.springboot.taskmanager.repository.UserRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-encodes a password whose stored hash is outdated (no {@code {bcrypt}} prefix or a
+ * lower work factor) on a background thread, after the login that presented it succeeded.
+ * The login itself never waits for the second hash. Rehashes that do not fit the queue are
+ * dropped; the next login of that user schedules them again.
+ */
+public class PasswordRehasher implements AutoCloseable {
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public PasswordRehasher(PasswordEncoder passwordEncoder, UserRepository userRepository, int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void rehashLater(String username, String currentHash, String rawPassword) {
+        if (!pending.add(username)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    // only replaces the hash the login was checked against, never a newer one
+                    userRepository.replacePassword(username, currentHash, passwordEncoder.encode(rawPassword));
+                } finally {
+                    pending.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(username);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
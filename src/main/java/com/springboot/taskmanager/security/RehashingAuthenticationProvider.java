@@ -0,0 +1,29 @@
+package com.springboot.taskmanager.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * The standard username and password check, with the hash upgrade moved off the request
+ * thread: {@link DaoAuthenticationProvider} would re-encode an outdated hash before the
+ * login completes, this one hands it to the {@link PasswordRehasher}.
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordRehasher passwordRehasher;
+
+    public RehashingAuthenticationProvider(UserDetailsService userDetailsService, PasswordRehasher passwordRehasher) {
+        super(userDetailsService);
+        this.passwordRehasher = passwordRehasher;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        if (authentication.getCredentials() != null && getPasswordEncoder().upgradeEncoding(user.getPassword())) {
+            passwordRehasher.rehashLater(user.getUsername(), user.getPassword(), authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -0,0 +1,83 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskChangedEvent;
+import com.springboot.taskmanager.event.TaskStatsRepairedEvent;
+import com.springboot.taskmanager.event.TasksImportedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory version of every user's board and of each of its columns, bumped by each
+ * committed task change, so the dashboard can answer a conditional GET without querying the
+ * task table and reuse the rendered columns nothing touched. The counters
+ * start over when the application restarts; {@link #bootId()} keeps validators handed out
+ * by an earlier run from matching.
+ */
+@Component
+public class BoardVersions {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final String bootId = Long.toString(startedAt, Character.MAX_RADIX);
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+    private final Map<ColumnKey, Long> columnVersions = new ConcurrentHashMap<>();
+
+    /**
+     * @param counter    number of changes since startup
+     * @param modifiedAt epoch millis of the last change, or of the startup if there was none
+     */
+    public record Version(long counter, long modifiedAt) {
+    }
+
+    public record ColumnKey(Long userId, TaskStatus status) {
+    }
+
+    public String bootId() {
+        return bootId;
+    }
+
+    public Version current(Long userId) {
+        return versions.getOrDefault(userId, new Version(0, startedAt));
+    }
+
+    public long column(Long userId, TaskStatus status) {
+        return columnVersions.getOrDefault(new ColumnKey(userId, status), 0L);
+    }
+
+    // after commit: a version must never run ahead of the data a reader can see
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        bump(event.userId());
+        // a created or deleted card touches one column, a moved card the one it left as well
+        columnVersions.merge(new ColumnKey(event.userId(), event.card().status()), 1L, Long::sum);
+        if (event.previousStatus() != null && event.previousStatus() != event.card().status()) {
+            columnVersions.merge(new ColumnKey(event.userId(), event.previousStatus()), 1L, Long::sum);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        bump(event.userId());
+        for (TaskStatus status : event.counts().keySet()) {
+            columnVersions.merge(new ColumnKey(event.userId(), status), 1L, Long::sum);
+        }
+    }
+
+    // the repaired counts show in the statistics of the page and in the headers of the columns
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskStatsRepaired(TaskStatsRepairedEvent event) {
+        bump(event.userId());
+        for (TaskStatus status : event.statuses()) {
+            columnVersions.merge(new ColumnKey(event.userId(), status), 1L, Long::sum);
+        }
+    }
+
+    private void bump(Long userId) {
+        long now = System.currentTimeMillis();
+        versions.merge(userId, new Version(1, now),
+                (old, ignored) -> new Version(old.counter() + 1, Math.max(now, old.modifiedAt())));
+    }
+}
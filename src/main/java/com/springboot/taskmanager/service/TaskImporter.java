@@ -0,0 +1,209 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskImportError;
+import com.springboot.taskmanager.dto.TaskImportProgress;
+import com.springboot.taskmanager.dto.TaskImportRow;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TasksImportedEvent;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of uploaded tasks. Rows are checked by the rules of the quick add form and
+ * written in chunks of {@code taskmanager.import.chunk-size}, one transaction and one JDBC
+ * batch per chunk, so a bad row or a failed chunk costs only itself and memory holds one
+ * chunk however large the file is.
+ */
+@Service
+@Timed("taskmanager.service")
+public class TaskImporter {
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO task (id, title, description, due_date, priority, status, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatistics taskStatistics;
+    private final TaskReminderScheduler reminderScheduler;
+    private final int chunkSize;
+
+    public TaskImporter(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher,
+                        TaskStatistics taskStatistics,
+                        TaskReminderScheduler reminderScheduler,
+                        @Value("${taskmanager.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.taskStatistics = taskStatistics;
+        this.reminderScheduler = reminderScheduler;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param rows     feeds every row of the file to the consumer it is given, e.g. {@code TaskImportReader.read}
+     * @param errors   receives each row that was not imported
+     * @param progress receives the totals after every chunk and, with {@code done} set, at the end
+     */
+    public TaskImportProgress importTasks(Long userId, Consumer<Consumer<TaskImportRow>> rows,
+                                          Consumer<TaskImportError> errors, Consumer<TaskImportProgress> progress) {
+        Chunks chunks = new Chunks(userId, errors, progress);
+        rows.accept(chunks::add);
+        chunks.write();
+        TaskImportProgress result = new TaskImportProgress(chunks.imported, chunks.failed, true);
+        progress.accept(result);
+        return result;
+    }
+
+    private final class Chunks {
+
+        private final Long userId;
+        private final Consumer<TaskImportError> errors;
+        private final Consumer<TaskImportProgress> progress;
+        private final List<Task> tasks = new ArrayList<>(chunkSize);
+        private final List<Long> lines = new ArrayList<>(chunkSize);
+        private long imported;
+        private long failed;
+
+        Chunks(Long userId, Consumer<TaskImportError> errors, Consumer<TaskImportProgress> progress) {
+            this.userId = userId;
+            this.errors = errors;
+            this.progress = progress;
+        }
+
+        void add(TaskImportRow row) {
+            Task task;
+            try {
+                task = toTask(row);
+            } catch (IllegalArgumentException e) {
+                failed++;
+                errors.accept(new TaskImportError(row.line(), e.getMessage()));
+                return;
+            }
+            tasks.add(task);
+            lines.add(row.line());
+            if (tasks.size() == chunkSize) {
+                write();
+                progress.accept(new TaskImportProgress(imported, failed, false));
+            }
+        }
+
+        void write() {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            try {
+                insert(userId, tasks);
+                imported += tasks.size();
+            } catch (DataAccessException | TransactionException e) {
+                // a failed statement, or a transaction that could not begin or commit
+                failed += tasks.size();
+                String message = "Not saved, the chunk was rolled back: " + e.getMostSpecificCause().getMessage();
+                lines.forEach(line -> errors.accept(new TaskImportError(line, message)));
+            }
+            tasks.clear();
+            lines.clear();
+        }
+    }
+
+    private void insert(Long userId, List<Task> tasks) {
+        long firstId = reserveIds(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(firstId + i);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, tasks, tasks.size(), (statement, task) -> {
+                statement.setLong(1, task.getId());
+                statement.setString(2, task.getTitle());
+                statement.setString(3, task.getDescription());
+                statement.setObject(4, task.getDueDate(), Types.DATE);
+                if (task.getPriority() == null) {
+                    statement.setNull(5, Types.TINYINT);
+                } else {
+                    statement.setByte(5, task.getPriority().getCode());
+                }
+                statement.setByte(6, task.getStatus().getCode());
+                statement.setLong(7, userId);
+            });
+            List<TaskCard> cards = tasks.stream().map(TaskCard::of).toList();
+            taskStatistics.added(userId, cards);
+            // imported ids are reserved ahead, so a due row can sit behind the reminder watermark
+            reminderScheduler.remindWritten(cards);
+            // one event for the chunk, delivered after the commit: a TaskChangedEvent per row
+            // cost as much as the inserts and would flood the open dashboards
+            eventPublisher.publishEvent(new TasksImportedEvent(userId, List.copyOf(tasks)));
+        });
+    }
+
+    /**
+     * Takes a block of ids from {@code id_generator} in a transaction of its own, as the pooled
+     * generator of {@link Task} does, so the row lock is held for two statements only.
+     */
+    private long reserveIds(int count) {
+        Long next = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE id_generator SET next_val = next_val + ? WHERE name = 'task'", count);
+            return jdbcTemplate.queryForObject("SELECT next_val FROM id_generator WHERE name = 'task'", Long.class);
+        });
+        return next - count;
+    }
+
+    // the checks and defaults of TaskController.saveTask
+    private static Task toTask(TaskImportRow row) {
+        String title = row.title() == null ? "" : row.title().trim();
+        if (title.isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be empty.");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Task title is longer than " + MAX_TITLE_LENGTH + " characters.");
+        }
+        return Task.builder()
+                .title(title)
+                .description(row.description())
+                .priority(isBlank(row.priority()) ? null : parseEnum(TaskPriority.class, "priority", row.priority()))
+                .dueDate(isBlank(row.dueDate()) ? null : parseDate(row.dueDate()))
+                .status(isBlank(row.status()) ? TaskStatus.TO_DO : parseEnum(TaskStatus.class, "status", row.status()))
+                .build();
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid task " + name + " '" + value + "'.");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid due date '" + value + "', expected YYYY-MM-DD.");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
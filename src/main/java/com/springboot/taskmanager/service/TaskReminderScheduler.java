@@ -0,0 +1,237 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.DueTask;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Due-soon and overdue reminders for the open tasks of all users, delivered to the
+ * {@code task_notification} table. Each kind continues from its watermark in
+ * {@code reminder_watermark} and reads the tasks that became due since then in pages of
+ * {@code taskmanager.reminders.chunk-size} along the (due_date, id) index, so a run costs as
+ * much as the newly due tasks, not as the task table. The pages are written by a pool of
+ * {@code taskmanager.reminders.workers} threads; the watermark moves past them once all are.
+ * <p>
+ * The scan never goes back behind the watermark. A task written there, created with or given
+ * a due date the watermark has passed or a lower id on its day, is reminded when it is saved
+ * instead, by {@link #remindWritten}.
+ */
+@Service
+@Timed("taskmanager.service")
+public class TaskReminderScheduler {
+
+    public enum Kind {
+        DUE_SOON, OVERDUE
+    }
+
+    private static final String WATERMARK_SQL = "SELECT due_date, task_id FROM reminder_watermark WHERE kind = ?";
+    private static final String MOVE_WATERMARK_SQL = "UPDATE reminder_watermark SET due_date = ?, task_id = ? WHERE kind = ?";
+    // owner and due date come from the task row: a task deleted or rescheduled since the scan is
+    // skipped, and a page delivered again after a failed watermark write adds nothing twice
+    private static final String DELIVER_SQL = "INSERT INTO task_notification (task_id, user_id, kind, due_date, created_at) "
+            + "SELECT t.id, t.user_id, ?, t.due_date, ? FROM task t WHERE t.id = ? AND t.due_date = ? AND NOT EXISTS "
+            + "(SELECT 1 FROM task_notification n WHERE n.task_id = t.id AND n.kind = ? AND n.due_date = t.due_date)";
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int workers;
+    private final int dueSoonDays;
+    private final TaskRepository taskRepository;
+    private final TaskStatusBuffer statusBuffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+
+    public TaskReminderScheduler(@Value("${taskmanager.reminders.enabled:true}") boolean enabled,
+                                 @Value("${taskmanager.reminders.chunk-size:500}") int chunkSize,
+                                 @Value("${taskmanager.reminders.workers:2}") int workers,
+                                 @Value("${taskmanager.reminders.due-soon-days:1}") int dueSoonDays,
+                                 TaskRepository taskRepository,
+                                 TaskStatusBuffer statusBuffer,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 Clock clock) {
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.dueSoonDays = dueSoonDays;
+        this.taskRepository = taskRepository;
+        this.statusBuffer = statusBuffer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        // never more than one page per worker is submitted at a time
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-reminders");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Reminds of the open tasks due within {@code taskmanager.reminders.due-soon-days} from
+     * today, then of the ones due before today.
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.reminders.interval:1m}",
+            initialDelayString = "${taskmanager.reminders.interval:1m}")
+    public void remind() {
+        if (!enabled) {
+            return;
+        }
+        // the scan filters on the stored status, so moves to Done must not wait in the buffer
+        statusBuffer.flushAll();
+        LocalDate today = LocalDate.now(clock);
+        remind(Kind.DUE_SOON, today, today.plusDays(dueSoonDays));
+        remind(Kind.OVERDUE, null, today.minusDays(1));
+    }
+
+    /**
+     * Delivers the reminders of one kind for the open tasks due from {@code from} (any day if
+     * null) up to {@code until}, starting after the watermark.
+     *
+     * @return the number of reminders delivered
+     */
+    int remind(Kind kind, LocalDate from, LocalDate until) {
+        DueTask position = watermark(kind);
+        if (from != null && position.dueDate().isBefore(from)) {
+            // tasks due before the window have been due too long for this kind
+            position = new DueTask(0L, from);
+        }
+        int delivered = 0;
+        boolean more = true;
+        while (more) {
+            // one page per worker, each read from where the one before ended
+            List<List<DueTask>> pages = new ArrayList<>(workers);
+            while (more && pages.size() < workers) {
+                List<DueTask> page = taskRepository.findDuePage(
+                        position.dueDate(), position.id(), until, TaskStatus.DONE, Limit.of(chunkSize));
+                if (!page.isEmpty()) {
+                    pages.add(page);
+                    position = page.getLast();
+                }
+                more = page.size() == chunkSize;
+            }
+            if (pages.isEmpty()) {
+                break;
+            }
+            List<Future<Integer>> deliveries = pages.stream()
+                    .map(page -> executor.submit(() -> deliver(kind, page)))
+                    .toList();
+            delivered += await(deliveries);
+            moveWatermark(kind, position);
+        }
+        return delivered;
+    }
+
+    /**
+     * Reminds of the given tasks, just written, that are open and already due soon or overdue,
+     * in the caller's transaction, so a task landing behind the watermark is not missed.
+     */
+    public void remindWritten(Collection<TaskCard> cards) {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now(clock);
+        LocalDate dueSoonUntil = today.plusDays(dueSoonDays);
+        List<DueTask> dueSoon = new ArrayList<>();
+        List<DueTask> overdue = new ArrayList<>();
+        for (TaskCard card : cards) {
+            if (card.dueDate() == null || card.status() == TaskStatus.DONE || card.dueDate().isAfter(dueSoonUntil)) {
+                continue;
+            }
+            (card.dueDate().isBefore(today) ? overdue : dueSoon).add(new DueTask(card.id(), card.dueDate()));
+        }
+        if (dueSoon.isEmpty() && overdue.isEmpty()) {
+            return;
+        }
+        // the delivery selects the task rows, so the ones Hibernate still holds go out first
+        taskRepository.flush();
+        if (!dueSoon.isEmpty()) {
+            deliver(Kind.DUE_SOON, dueSoon);
+        }
+        if (!overdue.isEmpty()) {
+            deliver(Kind.OVERDUE, overdue);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private DueTask watermark(Kind kind) {
+        return jdbcTemplate.queryForObject(WATERMARK_SQL,
+                (resultSet, row) -> new DueTask(resultSet.getLong("task_id"), resultSet.getDate("due_date").toLocalDate()),
+                kind.name());
+    }
+
+    private void moveWatermark(Kind kind, DueTask position) {
+        jdbcTemplate.update(MOVE_WATERMARK_SQL, Date.valueOf(position.dueDate()), position.id(), kind.name());
+    }
+
+    // one transaction and JDBC batch per page, the caller's if it has one
+    private int deliver(Kind kind, List<DueTask> page) {
+        Timestamp now = Timestamp.from(clock.instant());
+        int[][] counts = transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate(DELIVER_SQL, page, page.size(), (statement, task) -> {
+                    statement.setString(1, kind.name());
+                    statement.setTimestamp(2, now);
+                    statement.setLong(3, task.id());
+                    statement.setDate(4, Date.valueOf(task.dueDate()));
+                    statement.setString(5, kind.name());
+                }));
+        int delivered = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                delivered += Math.max(count, 0);
+            }
+        }
+        return delivered;
+    }
+
+    // the watermark only moves once every page of the round is written
+    private static int await(List<Future<Integer>> deliveries) {
+        int delivered = 0;
+        try {
+            for (Future<Integer> delivery : deliveries) {
+                delivered += delivery.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while delivering reminders", e);
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,347 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskSearchDocument;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.event.TaskChangedEvent;
+import com.springboot.taskmanager.event.TasksImportedEvent;
+import com.springboot.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the titles and descriptions of every user's tasks. It is
+ * filled from the task table once at startup and then follows the committed
+ * {@link TaskChangedEvent}s and {@link TasksImportedEvent}s, so a search never reads the database. Every word of the query
+ * has to start some word of the task; matches come newest first.
+ */
+@Component
+public class TaskSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxResults;
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+    public TaskSearchIndex(TaskRepository taskRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${taskmanager.search.max-results:50}") int maxResults) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxResults = maxResults;
+    }
+
+    // runs before the web server starts, so no search sees a half-built index
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with the current content of the task table. Changes committed while
+     * it reads are not guaranteed to be kept, hence only called at startup.
+     */
+    void rebuild() {
+        Map<Long, UserIndex> rebuilt = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TaskSearchDocument> documents = taskRepository.streamSearchDocuments()) {
+                documents.forEach(document -> rebuilt.computeIfAbsent(document.userId(), id -> new UserIndex())
+                        .add(document.card(), document.description()));
+            }
+        });
+        users.clear();
+        users.putAll(rebuilt);
+    }
+
+    /**
+     * @return at most {@code limit} (capped by {@code taskmanager.search.max-results}) of the
+     * user's tasks matching every word of the query, newest first
+     */
+    public List<TaskCard> search(Long userId, String query, int limit) {
+        UserIndex index = users.get(userId);
+        List<String> words = List.copyOf(words(query));
+        if (index == null || words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return index.search(words, Math.min(limit, maxResults));
+    }
+
+    // after commit, like the board versions: a rolled back task must never become searchable
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> users.computeIfAbsent(event.userId(), id -> new UserIndex())
+                    .add(event.card(), event.description());
+            case MOVED -> {
+                UserIndex index = users.get(event.userId());
+                if (index != null) {
+                    index.update(event.card());
+                }
+            }
+            case DELETED -> {
+                UserIndex index = users.get(event.userId());
+                if (index != null) {
+                    index.remove(event.card().id());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        users.computeIfAbsent(event.userId(), id -> new UserIndex()).addAll(event.tasks());
+    }
+
+    int size(Long userId) {
+        UserIndex index = users.get(userId);
+        return index == null ? 0 : index.size();
+    }
+
+    private static TreeSet<String> words(String text) {
+        TreeSet<String> words = new TreeSet<>();
+        if (text != null) {
+            for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @param words the distinct words of the title and description, sorted, sharing their
+     *              instances with the keys of the postings
+     */
+    private record Document(TaskCard card, String[] words) {
+
+        boolean hasWordStartingWith(String prefix) {
+            int position = Arrays.binarySearch(words, prefix);
+            if (position >= 0) {
+                return true;
+            }
+            int next = -position - 1;
+            return next < words.length && words[next].startsWith(prefix);
+        }
+    }
+
+    private static final class UserIndex {
+
+        // read-mostly: searches share the read lock, only task changes take the write lock
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Postings> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        void add(TaskCard card, String description) {
+            TreeSet<String> words = words(card.title());
+            words.addAll(words(description));
+            lock.writeLock().lock();
+            try {
+                put(card, words);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // a whole import chunk under one write lock, the words split before taking it
+        void addAll(List<Task> tasks) {
+            List<TreeSet<String>> words = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                TreeSet<String> taskWords = words(task.getTitle());
+                taskWords.addAll(words(task.getDescription()));
+                words.add(taskWords);
+            }
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < tasks.size(); i++) {
+                    put(TaskCard.of(tasks.get(i)), words.get(i));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void update(TaskCard card) {
+            lock.writeLock().lock();
+            try {
+                documents.computeIfPresent(card.id(), (id, document) -> new Document(card, document.words()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void put(TaskCard card, TreeSet<String> words) {
+            removeDocument(card.id());
+            String[] stored = new String[words.size()];
+            int i = 0;
+            for (String word : words) {
+                Postings wordPostings = postings.computeIfAbsent(word, Postings::new);
+                wordPostings.add(card.id());
+                stored[i++] = wordPostings.word;
+            }
+            documents.put(card.id(), new Document(card, stored));
+        }
+
+        private void removeDocument(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String word : document.words()) {
+                Postings wordPostings = postings.get(word);
+                wordPostings.remove(id);
+                if (wordPostings.size == 0) {
+                    postings.remove(word);
+                }
+            }
+        }
+
+        List<TaskCard> search(List<String> prefixes, int limit) {
+            lock.readLock().lock();
+            try {
+                // walk the ids of the rarest prefix only and check the other prefixes per task
+                Collection<Postings> rarest = null;
+                long rarestSize = Long.MAX_VALUE;
+                for (String prefix : prefixes) {
+                    Collection<Postings> matching = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+                    long size = 0;
+                    for (Postings wordPostings : matching) {
+                        size += wordPostings.size;
+                    }
+                    if (size == 0) {
+                        return List.of();
+                    }
+                    if (size < rarestSize) {
+                        rarest = matching;
+                        rarestSize = size;
+                    }
+                }
+
+                // merges the id lists of all words with that prefix from the top, newest first
+                PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong(Cursor::current).reversed());
+                for (Postings wordPostings : rarest) {
+                    cursors.add(new Cursor(wordPostings));
+                }
+                List<TaskCard> results = new ArrayList<>(Math.min(limit, 64));
+                long previous = Long.MIN_VALUE;
+                while (!cursors.isEmpty() && results.size() < limit) {
+                    Cursor cursor = cursors.poll();
+                    long id = cursor.current();
+                    if (cursor.advance()) {
+                        cursors.add(cursor);
+                    }
+                    // a task holding several words with the prefix comes up once per word
+                    if (id == previous) {
+                        continue;
+                    }
+                    previous = id;
+                    Document document = documents.get(id);
+                    if (prefixes.stream().allMatch(document::hasWordStartingWith)) {
+                        results.add(document.card());
+                    }
+                }
+                return results;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Sorted ids of the tasks containing one word, in a plain {@code long[]}: eight bytes per
+     * entry instead of a boxed set node, and new tasks, having the highest ids, append.
+     */
+    private static final class Postings {
+
+        final String word;
+        long[] ids = new long[2];
+        int size;
+
+        Postings(String word) {
+            this.word = word;
+        }
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+
+    private static final class Cursor {
+
+        private final Postings postings;
+        private int position;
+
+        Cursor(Postings postings) {
+            this.postings = postings;
+            this.position = postings.size - 1;
+        }
+
+        long current() {
+            return postings.ids[position];
+        }
+
+        boolean advance() {
+            return --position >= 0;
+        }
+    }
+}
@@ -1,42 +1,303 @@
 package com.springboot.taskmanager.service;
 
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import com.springboot.taskmanager.dto.TaskStats;
 import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskStatus;
 import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.event.TaskChangedEvent;
 import com.springboot.taskmanager.repository.TaskRepository;
+import com.springboot.taskmanager.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("taskmanager.service")
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatusBuffer statusBuffer;
+    private final TaskStatistics taskStatistics;
+    private final TaskReminderScheduler reminderScheduler;
+    // read-only: Hibernate skips the flush and dirty checking, MySQL runs a READ ONLY transaction
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
 
-    public TaskService(TaskRepository taskRepository){
+    public TaskService(TaskRepository taskRepository,
+                       UserRepository userRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       TaskStatusBuffer statusBuffer,
+                       TaskStatistics taskStatistics,
+                       TaskReminderScheduler reminderScheduler,
+                       PlatformTransactionManager transactionManager){
         this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.statusBuffer = statusBuffer;
+        this.taskStatistics = taskStatistics;
+        this.reminderScheduler = reminderScheduler;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
-    public List<Task> findAllUserTasks(User user) {
-        return taskRepository.findByUser(user);
+    // the board, its column pages and the statistics show the user's buffered moves as if they
+    // were written; every other read and change writes them first, before its own transaction
+    // opens: the flush commits on a connection of its own, and a request must never hold one
+    // connection while it waits for a second
+    public List<Task> findAllUserTasks(Long userId) {
+        statusBuffer.flush(userId);
+        return readTransaction.execute(transaction -> taskRepository.findByUserId(userId));
     }
 
-    public Optional<Task> findTaskByIdAndUser(Long taskId, User user) {
-        return Optional.ofNullable(taskRepository.findByIdAndUser(taskId, user));
+    /**
+     * @param stats the user's statistics as {@link #findStats} read them for the same request,
+     *              which the column counts are taken from
+     */
+    public TaskBoard findBoard(Long userId, int pageSize, TaskStats stats) {
+        return findBoard(userId, pageSize, EnumSet.allOf(TaskStatus.class), stats);
     }
 
-    public Task saveTask(Task task, User user) {
-        task.setUser(user); // Ensure the task is correctly linked to the user
-        return taskRepository.save(task);
+    /**
+     * The first page of the given columns only, for a dashboard that still holds the others
+     * rendered; the counts cover every column either way.
+     */
+    public TaskBoard findBoard(Long userId, int pageSize, Set<TaskStatus> statuses, TaskStats stats) {
+        Map<Long, TaskCard> moved = movedCards(userId);
+        EnumMap<TaskStatus, TaskColumnPage> columns = readTransaction.execute(transaction -> {
+            EnumMap<TaskStatus, TaskColumnPage> pages = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : statuses) {
+                pages.put(status, columnPage(userId, status, null, pageSize, moved));
+            }
+            return pages;
+        });
+
+        EnumMap<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, stats.count(status));
+        }
+
+        return new TaskBoard(columns, counts);
+    }
+
+    /**
+     * Column counts, overdue tasks and completion rate for the dashboard header, read from
+     * the maintained statistics rather than counted. Read once per request: the first read
+     * of a day counts the user's tasks, in a transaction of its own.
+     */
+    public TaskStats findStats(Long userId) {
+        return taskStatistics.withMoves(taskStatistics.find(userId), statusBuffer.pendingMoves(userId));
+    }
+
+    /**
+     * @param status the column, or {@code null} for a page of the user's tasks in all columns
+     */
+    public TaskColumnPage findColumnPage(Long userId, TaskStatus status, Long afterId, int pageSize) {
+        Map<Long, TaskCard> moved = movedCards(userId);
+        return readTransaction.execute(transaction -> columnPage(userId, status, afterId, pageSize, moved));
+    }
+
+    /**
+     * Hands the user's tasks to {@code sink} in id order, one row at a time from an open
+     * cursor, so an export of any size holds a single row in memory.
+     */
+    public void exportTasks(Long userId, Consumer<TaskExportRow> sink) {
+        statusBuffer.flush(userId);
+        readTransaction.executeWithoutResult(transaction -> {
+            try (Stream<TaskExportRow> rows = taskRepository.streamExportRowsByUserId(userId)) {
+                rows.forEach(sink);
+            }
+        });
+    }
+
+    public Optional<Task> findTaskByIdAndUser(Long taskId, Long userId) {
+        statusBuffer.flush(userId);
+        return readTransaction.execute(transaction -> Optional.ofNullable(taskRepository.findByIdAndUserId(taskId, userId)));
+    }
+
+    // the statistics change in the same transaction as the task
+    @Transactional
+    public Task saveTask(Task task, Long userId) {
+        // a reference is enough to write the foreign key, no need to select the user row
+        task.setUser(userRepository.getReferenceById(userId));
+        Task saved = taskRepository.save(task);
+        taskStatistics.added(userId, List.of(TaskCard.of(saved)));
+        reminderScheduler.remindWritten(List.of(TaskCard.of(saved)));
+        eventPublisher.publishEvent(TaskChangedEvent.created(userId, saved));
+        return saved;
+    }
+
+    /**
+     * Inserts all tasks in one transaction; ids come from the pooled generator,
+     * so Hibernate sends the inserts as JDBC batches.
+     */
+    @Transactional
+    public List<Task> saveTasks(List<Task> tasks, Long userId) {
+        User owner = userRepository.getReferenceById(userId);
+        tasks.forEach(task -> task.setUser(owner));
+        List<Task> saved = taskRepository.saveAll(tasks);
+        List<TaskCard> cards = saved.stream().map(TaskCard::of).toList();
+        taskStatistics.added(userId, cards);
+        reminderScheduler.remindWritten(cards);
+        saved.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(userId, task)));
+        return saved;
+    }
+
+    /**
+     * Moves a task to another column without loading the entity. The card is read first, with
+     * its row locked, because the change event and the statistics have to name the column it
+     * left; a task of someone else costs that one statement, a move to its own column too.
+     * With the write-behind buffer on, the move is only recorded in {@link TaskStatusBuffer}
+     * and written with the next flush: no transaction opens, and the card is read without a
+     * lock, or not at all if the buffer holds a move of it already.
+     *
+     * @return the task title, or empty if the task does not exist or belongs to someone else
+     */
+    public Optional<String> updateTaskStatus(Long taskId, Long userId, TaskStatus newStatus) {
+        if (statusBuffer.isEnabled()) {
+            return bufferTaskStatus(taskId, userId, newStatus);
+        }
+        return writeTransaction.execute(transaction -> {
+            Optional<TaskCard> card = taskRepository.lockCardByIdAndUserId(taskId, userId);
+            if (card.isEmpty()) {
+                return Optional.empty();
+            }
+            // the locked row cannot have moved or gone since the read
+            if (card.get().status() != newStatus) {
+                taskRepository.updateStatusByIdAndUserId(taskId, userId, newStatus);
+                taskStatistics.moved(userId, List.of(card.get()), newStatus);
+                eventPublisher.publishEvent(TaskChangedEvent.moved(userId, card.get(), newStatus));
+            }
+            return Optional.of(card.get().title());
+        });
+    }
+
+    /**
+     * @return the number of tasks moved; ids owned by someone else are skipped
+     */
+    public int updateTaskStatuses(Collection<Long> taskIds, Long userId, TaskStatus newStatus) {
+        statusBuffer.flush(userId);
+        return writeTransaction.execute(transaction -> {
+            List<TaskCard> cards = taskRepository.lockCardsByIdInAndUserId(taskIds, userId);
+            int moved = taskRepository.updateStatusByIdInAndUserId(taskIds, userId, newStatus);
+            List<TaskCard> changed = cards.stream().filter(card -> card.status() != newStatus).toList();
+            taskStatistics.moved(userId, changed, newStatus);
+            changed.forEach(card -> eventPublisher.publishEvent(TaskChangedEvent.moved(userId, card, newStatus)));
+            return moved;
+        });
     }
 
-    public boolean deleteTaskByIdAndUser(Long taskId, User user) {
-        Task taskToDelete = taskRepository.findByIdAndUser(taskId, user);
-        if (taskToDelete != null) {
-            taskRepository.delete(taskToDelete);
+    /**
+     * A buffered move of the task is dropped rather than written first: the statistics lose
+     * the task from the column it is stored in, and a flush that runs meanwhile finds no row.
+     */
+    public boolean deleteTaskByIdAndUser(Long taskId, Long userId) {
+        boolean deleted = writeTransaction.execute(transaction -> {
+            Optional<TaskCard> card = taskRepository.lockCardByIdAndUserId(taskId, userId);
+            if (card.isEmpty()) {
+                return false;
+            }
+            taskRepository.deleteByIdAndUserId(taskId, userId);
+            taskStatistics.removed(userId, List.of(card.get()));
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(userId, card.get()));
             return true;
+        });
+        if (deleted) {
+            statusBuffer.discard(userId, List.of(taskId));
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the number of tasks deleted; ids owned by someone else are skipped
+     */
+    public int deleteTasks(Collection<Long> taskIds, Long userId) {
+        List<TaskCard> deleted = writeTransaction.execute(transaction -> {
+            List<TaskCard> cards = taskRepository.lockCardsByIdInAndUserId(taskIds, userId);
+            taskRepository.deleteByIdInAndUserId(taskIds, userId);
+            taskStatistics.removed(userId, cards);
+            cards.forEach(card -> eventPublisher.publishEvent(TaskChangedEvent.deleted(userId, card)));
+            return cards;
+        });
+        statusBuffer.discard(userId, deleted.stream().map(TaskCard::id).toList());
+        return deleted.size();
+    }
+
+    private Optional<String> bufferTaskStatus(Long taskId, Long userId, TaskStatus newStatus) {
+        // a buffered move was checked to be the user's when it was made
+        Optional<TaskStatusBuffer.Move> move = statusBuffer.pending(userId, taskId);
+        Optional<TaskCard> stored = move.map(TaskStatusBuffer.Move::stored)
+                .or(() -> taskRepository.findCardByIdAndUserId(taskId, userId));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        // the column the card left is the buffered one if it moved since the last flush
+        TaskCard current = move.map(TaskStatusBuffer.Move::movedCard).orElse(stored.get());
+        if (current.status() != newStatus) {
+            // the statistics follow when the buffer writes the move
+            statusBuffer.put(userId, stored.get(), newStatus);
+            eventPublisher.publishEvent(TaskChangedEvent.moved(userId, current, newStatus));
         }
-        return false;
+        return Optional.of(current.title());
+    }
+
+    // the user's buffered moves, by task id, as the cards will be once written
+    private Map<Long, TaskCard> movedCards(Long userId) {
+        Map<Long, TaskCard> moved = new HashMap<>();
+        statusBuffer.pendingMoves(userId).forEach(move -> moved.put(move.stored().id(), move.movedCard()));
+        return moved;
     }
 
+    /**
+     * @param moved the buffered moves, laid over the rows: a card moved away is left out, one
+     *              moved in is added in id order
+     */
+    private TaskColumnPage columnPage(Long userId, TaskStatus status, Long afterId, int pageSize,
+                                      Map<Long, TaskCard> moved) {
+        long cursor = afterId == null ? 0L : afterId;
+        List<TaskCard> tasks;
+        if (status == null) {
+            // one extra row tells us whether a "load more" cursor is needed
+            tasks = taskRepository.findTaskPage(userId, cursor, Limit.of(pageSize + 1)).stream()
+                    .map(card -> moved.getOrDefault(card.id(), card))
+                    .toList();
+        } else {
+            // and one more per buffered move, for the rows that have left the column since
+            List<TaskCard> rows = taskRepository.findColumnPage(userId, status, cursor, Limit.of(pageSize + 1 + moved.size()));
+            tasks = moved.isEmpty() ? rows : Stream.concat(
+                            rows.stream().filter(card -> !moved.containsKey(card.id())),
+                            moved.values().stream().filter(card -> card.status() == status && card.id() > cursor))
+                    .sorted(Comparator.comparing(TaskCard::id))
+                    .limit(pageSize + 1)
+                    .toList();
+        }
+
+        if (tasks.size() <= pageSize) {
+            return new TaskColumnPage(status, tasks, null);
+        }
+        List<TaskCard> page = tasks.subList(0, pageSize);
+        return new TaskColumnPage(status, page, page.getLast().id());
+    }
 }
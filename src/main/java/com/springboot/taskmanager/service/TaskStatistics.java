@@ -0,0 +1,270 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.StatusCount;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskStatsRepairedEvent;
+import com.springboot.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Per-user task statistics in {@code user_task_stats}, changed by the same transaction as
+ * the task write they follow, so the dashboard reads one row instead of counting tasks.
+ * <p>
+ * The overdue count holds for the day in {@code overdue_as_of}; the first read on a later day
+ * counts the user's tasks again, as it does for a user without a row. Whatever drifts anyway
+ * (a row created while another transaction wrote tasks, a move buffered over midnight) is
+ * repaired by {@link #reconcile()} every {@code taskmanager.stats.reconcile-interval}, which
+ * publishes a {@link TaskStatsRepairedEvent} so no dashboard keeps showing the old counts.
+ */
+@Component
+public class TaskStatistics {
+
+    private static final String FIND_SQL = "SELECT to_do, in_progress, done, overdue, overdue_as_of "
+            + "FROM user_task_stats WHERE user_id = ?";
+    private static final String LOCK_SQL = FIND_SQL + " FOR UPDATE";
+    // an overdue delta is relative to its day and only applies to a row counted for the same day
+    private static final String ADD_SQL = "UPDATE user_task_stats SET to_do = to_do + ?, in_progress = in_progress + ?, "
+            + "done = done + ?, overdue = CASE WHEN overdue_as_of = ? THEN overdue + ? ELSE overdue END WHERE user_id = ?";
+    private static final String COUNT_OVERDUE_SQL = "SELECT COUNT(*) FROM task WHERE user_id = ? AND status <> ? AND due_date < ?";
+    private static final String UPDATE_SQL = "UPDATE user_task_stats SET to_do = ?, in_progress = ?, done = ?, overdue = ?, "
+            + "overdue_as_of = ? WHERE user_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO user_task_stats (to_do, in_progress, done, overdue, overdue_as_of, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String USERS_PAGE_SQL = "SELECT user_id FROM user_task_stats WHERE user_id > ? ORDER BY user_id LIMIT ?";
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final int reconcilePageSize;
+
+    private record Row(TaskStats stats, LocalDate overdueAsOf) {
+    }
+
+    /**
+     * @param repaired the columns whose count was off, or {@code null} if the row was right
+     */
+    private record Recount(TaskStats stats, Set<TaskStatus> repaired) {
+    }
+
+    public TaskStatistics(TaskRepository taskRepository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          Clock clock,
+                          @Value("${taskmanager.stats.reconcile-page-size:100}") int reconcilePageSize) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // a recount commits on its own; TaskService reads the statistics outside any transaction,
+        // so it never runs nested in one and holds a single connection
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.reconcilePageSize = reconcilePageSize;
+    }
+
+    /**
+     * One row read; the user's tasks are only counted the first time and once a day.
+     */
+    public TaskStats find(Long userId) {
+        LocalDate today = LocalDate.now(clock);
+        Optional<Row> row = jdbcTemplate.query(FIND_SQL, TaskStatistics::row, userId).stream().findFirst();
+        if (row.isPresent() && row.get().overdueAsOf().equals(today)) {
+            return row.get().stats();
+        }
+        return transactionTemplate.execute(status -> recount(userId, today)).stats();
+    }
+
+    // the following run in the caller's transaction, after the task write they count
+
+    public void added(Long userId, Collection<TaskCard> cards) {
+        Delta delta = new Delta(LocalDate.now(clock));
+        cards.forEach(card -> delta.count(card, 1));
+        apply(userId, delta);
+    }
+
+    public void removed(Long userId, Collection<TaskCard> cards) {
+        Delta delta = new Delta(LocalDate.now(clock));
+        cards.forEach(card -> delta.count(card, -1));
+        apply(userId, delta);
+    }
+
+    /**
+     * @param cards the tasks as they were before the move
+     */
+    public void moved(Long userId, Collection<TaskCard> cards, TaskStatus newStatus) {
+        Delta delta = new Delta(LocalDate.now(clock));
+        for (TaskCard card : cards) {
+            delta.count(card, -1);
+            delta.count(card.withStatus(newStatus), 1);
+        }
+        apply(userId, delta);
+    }
+
+    /**
+     * The statistics as they will be once the given moves, still buffered, are written.
+     */
+    public TaskStats withMoves(TaskStats stats, Collection<TaskStatusBuffer.Move> moves) {
+        if (moves.isEmpty()) {
+            return stats;
+        }
+        Delta delta = new Delta(LocalDate.now(clock));
+        for (TaskStatusBuffer.Move move : moves) {
+            delta.count(move.stored(), -1);
+            delta.count(move.movedCard(), 1);
+        }
+        return new TaskStats(stats.toDo() + delta.byStatus[TaskStatus.TO_DO.ordinal()],
+                stats.inProgress() + delta.byStatus[TaskStatus.IN_PROGRESS.ordinal()],
+                stats.done() + delta.byStatus[TaskStatus.DONE.ordinal()],
+                stats.overdue() + delta.overdue);
+    }
+
+    /**
+     * Counts the tasks of every user with statistics again, a page of users at a time, and
+     * fixes the rows that were off. Each repair is published once it is committed.
+     *
+     * @return the number of rows that needed repair
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.stats.reconcile-interval:1h}",
+            initialDelayString = "${taskmanager.stats.reconcile-interval:1h}")
+    public int reconcile() {
+        LocalDate today = LocalDate.now(clock);
+        int repaired = 0;
+        long afterId = 0;
+        List<Long> userIds;
+        do {
+            userIds = jdbcTemplate.queryForList(USERS_PAGE_SQL, Long.class, afterId, reconcilePageSize);
+            for (Long userId : userIds) {
+                // one short transaction per user, so task writes wait for a single recount at most
+                boolean wasOff = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    Set<TaskStatus> statuses = recount(userId, today).repaired();
+                    if (statuses == null) {
+                        return false;
+                    }
+                    // board and column versions move after the commit, as for a task write
+                    eventPublisher.publishEvent(new TaskStatsRepairedEvent(userId, statuses));
+                    return true;
+                }));
+                if (wasOff) {
+                    repaired++;
+                }
+            }
+            afterId = userIds.isEmpty() ? afterId : userIds.getLast();
+        } while (userIds.size() == reconcilePageSize);
+        return repaired;
+    }
+
+    /**
+     * Counts the user's tasks with the row locked: a task write that reaches its row update
+     * meanwhile waits, and adds its delta to the new counts once it commits.
+     */
+    private Recount recount(Long userId, LocalDate today) {
+        Optional<Row> before = jdbcTemplate.query(LOCK_SQL, TaskStatistics::row, userId).stream().findFirst();
+        long[] counts = new long[TaskStatus.values().length];
+        for (StatusCount statusCount : taskRepository.countByStatus(userId)) {
+            counts[statusCount.status().ordinal()] = statusCount.count();
+        }
+        Long overdue = jdbcTemplate.queryForObject(COUNT_OVERDUE_SQL, Long.class,
+                userId, TaskStatus.DONE.getCode(), Date.valueOf(today));
+        TaskStats stats = new TaskStats(counts[TaskStatus.TO_DO.ordinal()], counts[TaskStatus.IN_PROGRESS.ordinal()],
+                counts[TaskStatus.DONE.ordinal()], overdue);
+        Object[] values = {stats.toDo(), stats.inProgress(), stats.done(), stats.overdue(), Date.valueOf(today), userId};
+        if (before.isPresent()) {
+            jdbcTemplate.update(UPDATE_SQL, values);
+            // a new day changes the overdue count without anything having drifted
+            TaskStats expected = before.get().overdueAsOf().equals(today) ? stats
+                    : new TaskStats(stats.toDo(), stats.inProgress(), stats.done(), before.get().stats().overdue());
+            return new Recount(stats, before.get().stats().equals(expected) ? null
+                    : changedColumns(before.get().stats(), stats));
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, values);
+        } catch (DuplicateKeyException | ConcurrencyFailureException e) {
+            // another first read created it (MySQL may report the race as a deadlock); the counts stand
+        }
+        return new Recount(stats, null);
+    }
+
+    private static Set<TaskStatus> changedColumns(TaskStats before, TaskStats after) {
+        Set<TaskStatus> statuses = EnumSet.noneOf(TaskStatus.class);
+        if (before.toDo() != after.toDo()) {
+            statuses.add(TaskStatus.TO_DO);
+        }
+        if (before.inProgress() != after.inProgress()) {
+            statuses.add(TaskStatus.IN_PROGRESS);
+        }
+        if (before.done() != after.done()) {
+            statuses.add(TaskStatus.DONE);
+        }
+        return statuses;
+    }
+
+    private void apply(Long userId, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        // no row yet: the first read counts the tasks, this one included
+        jdbcTemplate.update(ADD_SQL, delta.byStatus[TaskStatus.TO_DO.ordinal()], delta.byStatus[TaskStatus.IN_PROGRESS.ordinal()],
+                delta.byStatus[TaskStatus.DONE.ordinal()], Date.valueOf(delta.day), delta.overdue, userId);
+    }
+
+    private static Row row(ResultSet resultSet, int rowNumber) throws SQLException {
+        return new Row(new TaskStats(resultSet.getLong("to_do"), resultSet.getLong("in_progress"),
+                resultSet.getLong("done"), resultSet.getLong("overdue")),
+                resultSet.getDate("overdue_as_of").toLocalDate());
+    }
+
+    private static final class Delta {
+
+        private final LocalDate day;
+        private final long[] byStatus = new long[TaskStatus.values().length];
+        private long overdue;
+
+        Delta(LocalDate day) {
+            this.day = day;
+        }
+
+        void count(TaskCard card, int sign) {
+            byStatus[card.status().ordinal()] += sign;
+            if (card.status() != TaskStatus.DONE && card.dueDate() != null && card.dueDate().isBefore(day)) {
+                overdue += sign;
+            }
+        }
+
+        boolean isEmpty() {
+            if (overdue != 0) {
+                return false;
+            }
+            for (long count : byStatus) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for Kanban moves, on with {@code taskmanager.status.write-behind.enabled}.
+ * A move only records the new status per task, so a card dragged back and forth costs one
+ * UPDATE, and {@link #flushAll()} writes everything every
+ * {@code taskmanager.status.write-behind.flush-interval}. That interval is what a crash can
+ * lose: a longer one coalesces more moves, a shorter one loses fewer.
+ * <p>
+ * The board reads do not wait for a flush: {@code TaskService} lays the user's
+ * {@link #pendingMoves} over the column pages and the statistics, which {@link TaskStatistics}
+ * changes only with the flush. The rarer reads and bulk moves flush the user's moves first,
+ * before they open their own transaction; a delete drops the moves of the deleted tasks.
+ */
+@Component
+public class TaskStatusBuffer {
+
+    private final boolean enabled;
+    private final TaskRepository taskRepository;
+    private final TaskStatistics taskStatistics;
+    private final TransactionTemplate transactionTemplate;
+    // userId -> taskId -> latest move; puts go through compute, so none lands in a map being dropped
+    private final Map<Long, Map<Long, Move>> pending = new ConcurrentHashMap<>();
+    // one flush at a time, so an older drain can never be written after a newer one
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * @param stored the task as the database has it, the start of the move for the statistics
+     * @param status the column the task is moving to
+     */
+    public record Move(TaskCard stored, TaskStatus status) {
+
+        public TaskCard movedCard() {
+            return stored.withStatus(status);
+        }
+    }
+
+    public TaskStatusBuffer(@Value("${taskmanager.status.write-behind.enabled:false}") boolean enabled,
+                            TaskRepository taskRepository,
+                            TaskStatistics taskStatistics,
+                            PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.taskRepository = taskRepository;
+        this.taskStatistics = taskStatistics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // TaskService flushes before it opens its own transaction, never inside one; a new one
+        // still, so a flush is not rolled back with whatever a caller does afterwards
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the new status of a task the caller has checked belongs to the user; an earlier
+     * buffered status of the same task is overwritten.
+     *
+     * @param stored the task as read from the database
+     */
+    public void put(Long userId, TaskCard stored, TaskStatus status) {
+        pending.compute(userId, (id, moves) -> {
+            Map<Long, Move> userMoves = moves == null ? new ConcurrentHashMap<>() : moves;
+            // a card moved again still started from where the first buffered move took it
+            userMoves.compute(stored.id(), (taskId, move) -> new Move(move == null ? stored : move.stored(), status));
+            return userMoves;
+        });
+    }
+
+    /**
+     * @return the buffered move of the task, if it has been moved since the last flush
+     */
+    public Optional<Move> pending(Long userId, Long taskId) {
+        Map<Long, Move> moves = pending.get(userId);
+        return moves == null ? Optional.empty() : Optional.ofNullable(moves.get(taskId));
+    }
+
+    /**
+     * @return the user's moves not written yet, in no particular order
+     */
+    public Collection<Move> pendingMoves(Long userId) {
+        Map<Long, Move> moves = pending.get(userId);
+        return moves == null ? List.of() : List.copyOf(moves.values());
+    }
+
+    /**
+     * Writes the buffered moves of one user; returns right away if there are none.
+     */
+    public void flush(Long userId) {
+        if (!pending.containsKey(userId)) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, Move> moves = pending.get(userId);
+            if (moves != null) {
+                write(Map.of(userId, Map.copyOf(moves)));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the buffered moves of deleted tasks.
+     */
+    public void discard(Long userId, Collection<Long> taskIds) {
+        pending.computeIfPresent(userId, (id, moves) -> {
+            taskIds.forEach(moves::remove);
+            return moves.isEmpty() ? null : moves;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.status.write-behind.flush-interval:1s}")
+    public void flushAll() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, Map<Long, Move>> snapshot = new HashMap<>();
+            pending.forEach((userId, moves) -> snapshot.put(userId, Map.copyOf(moves)));
+            write(snapshot);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+    }
+
+    int pendingCount(Long userId) {
+        Map<Long, Move> moves = pending.get(userId);
+        return moves == null ? 0 : moves.size();
+    }
+
+    /**
+     * Writes the moves in one transaction, one bulk UPDATE per user and target column, which
+     * also invalidates the cached tasks. The rows are read first, locked as {@code TaskService}
+     * locks them, so a task deleted since its move is skipped and the statistics start from the
+     * column the task is stored in. Only then are the moves dropped from the buffer, and only
+     * where the task has not been moved again meanwhile; until then {@link #pending} still
+     * answers with them, and a failed write leaves them for the next flush.
+     */
+    private void write(Map<Long, Map<Long, Move>> snapshot) {
+        transactionTemplate.executeWithoutResult(transaction -> snapshot.forEach((userId, moves) -> {
+            Map<TaskStatus, List<TaskCard>> byStatus = new EnumMap<>(TaskStatus.class);
+            taskRepository.lockCardsByIdInAndUserId(moves.keySet(), userId).forEach(stored ->
+                    byStatus.computeIfAbsent(moves.get(stored.id()).status(), s -> new ArrayList<>()).add(stored));
+            byStatus.forEach((status, cards) -> {
+                taskRepository.updateStatusByIdInAndUserId(cards.stream().map(TaskCard::id).toList(), userId, status);
+                taskStatistics.moved(userId, cards.stream().filter(card -> card.status() != status).toList(), status);
+            });
+        }));
+        snapshot.forEach((userId, written) -> pending.computeIfPresent(userId, (id, moves) -> {
+            written.forEach((taskId, move) -> moves.computeIfPresent(taskId, (key, current) -> current == move ? null
+                    // moved again meanwhile: that move starts where the written one ended
+                    : new Move(move.movedCard(), current.status())));
+            return moves.isEmpty() ? null : moves;
+        }));
+    }
+}
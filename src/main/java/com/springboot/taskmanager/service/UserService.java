@@ -5,16 +5,18 @@ import com.springboot.taskmanager.entity.User;
 import com.springboot.taskmanager.exceptions.PasswordsDoNotMatchException;
 import com.springboot.taskmanager.exceptions.UserAlreadyExistsException;
 import com.springboot.taskmanager.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.springboot.taskmanager.security.AuthenticatedUser;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 @Service
+@Timed("taskmanager.service")
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
@@ -33,13 +35,11 @@ public class UserService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found: " + username);
         }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
-        );
+        // id and role travel with the principal, so later requests do not need to reload the user
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
     }
 
+    // a natural-id lookup: the second-level cache answers repeated ones, and drops them on every change
     public User findUserByUsername(String username) {
         User user = userRepository.findByUsername(username);
         if (user == null) {
@@ -50,10 +50,6 @@ public class UserService implements UserDetailsService {
 
     public User registerNewUser(UserRegistrationDto registrationDto) {
 
-        if (userRepository.findByUsername(registrationDto.getUsername()) != null) {
-            throw new UserAlreadyExistsException("Username already exists.");
-        }
-
         if (!registrationDto.getPassword().equals(registrationDto.getConfirmPassword())) {
             throw new PasswordsDoNotMatchException("Passwords do not match!");
         }
@@ -67,6 +63,15 @@ public class UserService implements UserDetailsService {
                         .role("ROLE_USER")
                         .build();
 
-        return userRepository.save(newUser);
+        // a single insert: the unique indexes on username decide, so two concurrent registrations cannot both pass
+        try {
+            return userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new UserAlreadyExistsException("Username already exists.");
+            }
+            throw e;
+        }
     }
 }
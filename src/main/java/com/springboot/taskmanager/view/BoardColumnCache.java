@@ -0,0 +1,274 @@
+package com.springboot.taskmanager.view;
+
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskChangedEvent;
+import com.springboot.taskmanager.event.TaskStatsRepairedEvent;
+import com.springboot.taskmanager.event.TasksImportedEvent;
+import com.springboot.taskmanager.service.BoardVersions;
+import com.springboot.taskmanager.service.BoardVersions.ColumnKey;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.support.RequestContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.context.webmvc.SpringWebMvcThymeleafRequestContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.spring6.naming.SpringContextVariableNames;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Rendered HTML of the first page of every Kanban column, keyed by user and column and
+ * tagged with the column version from {@link BoardVersions}. A dashboard request renders
+ * only the columns changed since the last render; a reload after a move re-renders two
+ * columns, an unchanged board none.
+ * <p>
+ * Cached HTML holds a placeholder where the forms carry the CSRF token and gets the token
+ * of the current request on the way out. The cache is an LRU bounded by the UTF-16 size of
+ * the markup and is guarded by a lock so virtual threads do not pin their carrier.
+ */
+@Component
+public class BoardColumnCache {
+
+    static final String CSRF_PLACEHOLDER = "__board-column-csrf-token__";
+    private static final String COLUMN_TEMPLATE = "fragments/board-column";
+    private static final Set<String> COLUMN_FRAGMENT = Set.of("column");
+
+    private final SpringTemplateEngine templateEngine;
+    private final BoardVersions boardVersions;
+    private final ApplicationContext applicationContext;
+    private final ConversionService conversionService;
+    private final long maxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<ColumnKey, Fragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private record Fragment(long version, String html) {
+
+        long weight() {
+            return 2L * html.length();
+        }
+    }
+
+    public BoardColumnCache(SpringTemplateEngine templateEngine,
+                            BoardVersions boardVersions,
+                            ApplicationContext applicationContext,
+                            // lazy: contexts without Spring MVC (benchmarks) have no such bean and never render
+                            @Lazy ConversionService mvcConversionService,
+                            @Value("${taskmanager.board.column-cache.max-size:32MB}") DataSize maxSize) {
+        this.templateEngine = templateEngine;
+        this.boardVersions = boardVersions;
+        this.applicationContext = applicationContext;
+        this.conversionService = mvcConversionService;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * @param loader reads the first page of the given columns; called once, and only if some
+     *               column is missing or out of date
+     * @return the HTML of every column in board order, ready to be written into the page
+     */
+    public Map<TaskStatus, String> columns(Long userId,
+                                           Function<Set<TaskStatus>, TaskBoard> loader,
+                                           HttpServletRequest request,
+                                           HttpServletResponse response) {
+        EnumMap<TaskStatus, String> columns = new EnumMap<>(TaskStatus.class);
+        EnumMap<TaskStatus, Long> versions = new EnumMap<>(TaskStatus.class);
+        Set<TaskStatus> stale = EnumSet.noneOf(TaskStatus.class);
+
+        for (TaskStatus status : TaskStatus.values()) {
+            // read before the data: a column is never stored under a newer version than it shows
+            long version = boardVersions.column(userId, status);
+            versions.put(status, version);
+            String html = get(new ColumnKey(userId, status), version);
+            if (html == null) {
+                stale.add(status);
+            } else {
+                columns.put(status, html);
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            TaskBoard board = loader.apply(stale);
+            for (TaskStatus status : stale) {
+                String html = render(board, status, request, response);
+                put(new ColumnKey(userId, status), new Fragment(versions.get(status), html));
+                columns.put(status, html);
+            }
+        }
+
+        CsrfToken csrfToken = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+        if (csrfToken != null) {
+            columns.replaceAll((status, html) -> html.replace(CSRF_PLACEHOLDER, csrfToken.getToken()));
+        }
+        return columns;
+    }
+
+    // frees the memory right away; the version check alone would only skip the stale entry
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        evict(new ColumnKey(event.userId(), event.card().status()));
+        if (event.previousStatus() != null) {
+            evict(new ColumnKey(event.userId(), event.previousStatus()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        event.counts().keySet().forEach(status -> evict(new ColumnKey(event.userId(), status)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskStatsRepaired(TaskStatsRepairedEvent event) {
+        event.statuses().forEach(status -> evict(new ColumnKey(event.userId(), status)));
+    }
+
+    /**
+     * Drops every column, for tasks changed behind {@code TaskService}'s back.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            fragments.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long size() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String render(TaskBoard board, TaskStatus status, HttpServletRequest request, HttpServletResponse response) {
+        HttpServletRequest renderRequest = new PlaceholderCsrfRequest(request);
+        HttpServletResponse renderResponse = new UnencodedUrlResponse(response);
+
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(request.getServletContext());
+        WebContext context = new WebContext(application.buildExchange(renderRequest, renderResponse));
+        Map<String, Object> model = Map.of("page", board.column(status), "count", board.count(status));
+        context.setVariables(model);
+
+        // what ThymeleafView sets up for a page, so th:action adds the (placeholder) CSRF field
+        RequestContext requestContext = new RequestContext(renderRequest, renderResponse, request.getServletContext(), model);
+        context.setVariable(SpringContextVariableNames.SPRING_REQUEST_CONTEXT, requestContext);
+        context.setVariable(SpringContextVariableNames.THYMELEAF_REQUEST_CONTEXT,
+                new SpringWebMvcThymeleafRequestContext(requestContext, renderRequest));
+        context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, conversionService));
+
+        return templateEngine.process(COLUMN_TEMPLATE, COLUMN_FRAGMENT, context);
+    }
+
+    private String get(ColumnKey key, long version) {
+        lock.lock();
+        try {
+            Fragment fragment = fragments.get(key);
+            return fragment != null && fragment.version() == version ? fragment.html() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(ColumnKey key, Fragment fragment) {
+        if (fragment.weight() > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            Fragment previous = fragments.put(key, fragment);
+            if (previous != null) {
+                bytes -= previous.weight();
+            }
+            bytes += fragment.weight();
+
+            Iterator<Fragment> eldest = fragments.values().iterator();
+            while (bytes > maxBytes) {
+                bytes -= eldest.next().weight();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(ColumnKey key) {
+        lock.lock();
+        try {
+            Fragment removed = fragments.remove(key);
+            if (removed != null) {
+                bytes -= removed.weight();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the placeholder token to the CSRF field of the forms instead of the token of the
+     * session that happens to render the column.
+     */
+    private static final class PlaceholderCsrfRequest extends HttpServletRequestWrapper {
+
+        private final CsrfToken placeholder;
+
+        PlaceholderCsrfRequest(HttpServletRequest request) {
+            super(request);
+            CsrfToken token = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+            this.placeholder = token == null ? null
+                    : new DefaultCsrfToken(token.getHeaderName(), token.getParameterName(), CSRF_PLACEHOLDER);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            if (placeholder != null && (CsrfToken.class.getName().equals(name) || placeholder.getParameterName().equals(name))) {
+                return placeholder;
+            }
+            return super.getAttribute(name);
+        }
+    }
+
+    // cached markup is shared between sessions, so links must not carry a ;jsessionid
+    private static final class UnencodedUrlResponse extends HttpServletResponseWrapper {
+
+        UnencodedUrlResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.springboot.taskmanager.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes task export rows to the response as they come off the cursor, as CSV with a header
+ * line or as one JSON object per line. Only the write buffer is held in memory; the servlet
+ * container sends it on in chunks whenever it fills up.
+ */
+@Component
+public class TaskExportWriter {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final String CSV_HEADER = "id,title,description,priority,dueDate,status";
+
+    private final ObjectWriter jsonWriter;
+
+    public TaskExportWriter(ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writerFor(TaskExportRow.class);
+    }
+
+    /**
+     * @param rows feeds every row to the consumer it is given, e.g. {@code TaskService.exportTasks}
+     */
+    public void write(TaskExportFormat format, OutputStream out, Consumer<Consumer<TaskExportRow>> rows)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == TaskExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+        try {
+            rows.accept(row -> {
+                try {
+                    if (format == TaskExportFormat.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writer.write(jsonWriter.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // RFC 4180: CRLF line ends, fields quoted when they hold a separator, quote or line break
+    private static void writeCsv(Writer writer, TaskExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writeCsvField(writer, row.title());
+        writer.write(',');
+        writeCsvField(writer, row.description());
+        writer.write(',');
+        writeCsvField(writer, row.priority() == null ? null : row.priority().name());
+        writer.write(',');
+        writeCsvField(writer, row.dueDate() == null ? null : row.dueDate().toString());
+        writer.write(',');
+        writeCsvField(writer, row.status().name());
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
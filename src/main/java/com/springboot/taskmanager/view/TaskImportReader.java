@@ -0,0 +1,361 @@
+package com.springboot.taskmanager.view;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.springboot.taskmanager.dto.TaskImportError;
+import com.springboot.taskmanager.dto.TaskImportProgress;
+import com.springboot.taskmanager.dto.TaskImportRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Reads an uploaded task file one record at a time, in the formats the export writes: CSV
+ * with a header line naming the columns, or one JSON object per line. A record that cannot
+ * be parsed is reported as an error and skipped, and the file is never held in memory: a
+ * record longer than {@code taskmanager.import.max-record-length} characters is skipped without
+ * being kept, a field longer than {@code taskmanager.import.max-field-length} rejects its row.
+ * Also writes the import report, one JSON object per line.
+ */
+@Component
+public class TaskImportReader {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final ObjectReader jsonReader;
+    private final ObjectWriter reportWriter;
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+
+    public TaskImportReader(ObjectMapper objectMapper,
+                            @Value("${taskmanager.import.max-field-length:16384}") int maxFieldLength,
+                            @Value("${taskmanager.import.max-record-length:32768}") int maxRecordLength) {
+        this.jsonReader = objectMapper.reader();
+        this.reportWriter = objectMapper.writer();
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    public void read(TaskExportFormat format, InputStream in,
+                     Consumer<TaskImportRow> rows, Consumer<TaskImportError> errors) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        skipByteOrderMark(reader);
+        if (format == TaskExportFormat.CSV) {
+            readCsv(new CsvRecords(reader, maxRecordLength), rows, errors);
+        } else {
+            readNdjson(new NdjsonLines(reader, maxRecordLength), rows, errors);
+        }
+    }
+
+    /**
+     * @return a report on {@code out}; every progress line is flushed, so the client sees it
+     * as soon as the chunk is committed
+     */
+    public Report report(OutputStream out) {
+        return new Report(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    private void readCsv(CsvRecords records, Consumer<TaskImportRow> rows,
+                         Consumer<TaskImportError> errors) throws IOException {
+        List<String> header;
+        try {
+            header = records.next();
+        } catch (MalformedRecordException e) {
+            errors.accept(new TaskImportError(1, e.getMessage()));
+            return;
+        }
+        int title = header == null ? -1 : header.indexOf("title");
+        if (title < 0) {
+            errors.accept(new TaskImportError(1, "The header line has no title column."));
+            return;
+        }
+        int description = header.indexOf("description");
+        int priority = header.indexOf("priority");
+        int dueDate = header.indexOf("duedate");
+        int status = header.indexOf("status");
+
+        List<String> fields;
+        while (true) {
+            long line = records.line;
+            try {
+                fields = records.next();
+            } catch (OverlongRecordException e) {
+                // skipped up to its end, the next record is read as usual
+                errors.accept(new TaskImportError(line, e.getMessage()));
+                continue;
+            } catch (MalformedRecordException e) {
+                errors.accept(new TaskImportError(line, e.getMessage()));
+                return;
+            }
+            if (fields == null) {
+                return;
+            }
+            // a blank line is a single empty field
+            if (fields.size() == 1 && fields.getFirst().isEmpty()) {
+                continue;
+            }
+            accept(new TaskImportRow(line, field(fields, title), field(fields, description),
+                    field(fields, priority), field(fields, dueDate), field(fields, status)), rows, errors);
+        }
+    }
+
+    private void readNdjson(NdjsonLines lines, Consumer<TaskImportRow> rows,
+                            Consumer<TaskImportError> errors) throws IOException {
+        long line = 0;
+        String text;
+        while (true) {
+            line++;
+            try {
+                text = lines.next();
+            } catch (OverlongRecordException e) {
+                errors.accept(new TaskImportError(line, e.getMessage()));
+                continue;
+            }
+            if (text == null) {
+                return;
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = jsonReader.readTree(text);
+            } catch (JsonProcessingException e) {
+                errors.accept(new TaskImportError(line, "The line is not valid JSON."));
+                continue;
+            }
+            if (!node.isObject()) {
+                errors.accept(new TaskImportError(line, "The line is not a JSON object."));
+                continue;
+            }
+            accept(new TaskImportRow(line, text(node, "title"), text(node, "description"),
+                    text(node, "priority"), text(node, "dueDate"), text(node, "status")), rows, errors);
+        }
+    }
+
+    private void accept(TaskImportRow row, Consumer<TaskImportRow> rows, Consumer<TaskImportError> errors) {
+        for (String value : new String[]{row.title(), row.description(), row.priority(), row.dueDate(), row.status()}) {
+            if (value != null && value.length() > maxFieldLength) {
+                errors.accept(new TaskImportError(row.line(), "A field is longer than " + maxFieldLength + " characters."));
+                return;
+            }
+        }
+        rows.accept(row);
+    }
+
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < 0 || index >= fields.size() || fields.get(index).isEmpty() ? null : fields.get(index);
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * RFC 4180 records: fields are separated by commas, a quoted field may hold commas, doubled
+     * quotes and line breaks, and a record ends at an unquoted CRLF or LF.
+     */
+    private static final class CsvRecords {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder field = new StringBuilder();
+        private int fieldLength;
+        // the line the next record starts on
+        private long line = 1;
+        private boolean first = true;
+
+        CsvRecords(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return the fields of the next record, the header in lower case, or {@code null} at
+         * the end of the file
+         * @throws OverlongRecordException for a record of more than {@code maxLength}
+         *                                 characters, read to its end but not kept
+         */
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            boolean quoted = false;
+            int length = 0;
+            field.setLength(0);
+            fieldLength = 0;
+            while (true) {
+                // past the limit the record is still parsed, to find where it ends, but not kept
+                length++;
+                if (quoted) {
+                    if (c == -1) {
+                        throw new MalformedRecordException("A quoted field is not closed before the end of the file.");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            append('"', ++length);
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        append((char) c, length);
+                    }
+                } else if (c == '"' && fieldLength == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    if (length <= maxLength) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                    fieldLength = 0;
+                } else if (c == '\n' || c == -1) {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    append((char) c, length);
+                }
+                c = reader.read();
+            }
+            if (length > maxLength) {
+                throw new OverlongRecordException("The record is longer than " + maxLength + " characters.");
+            }
+            fields.add(field.toString());
+            if (first) {
+                first = false;
+                fields.replaceAll(name -> name.trim().toLowerCase(Locale.ROOT));
+            }
+            return fields;
+        }
+
+        // counted whether kept or not: a quote only opens a field that is still empty
+        private void append(char c, int recordLength) {
+            fieldLength++;
+            if (recordLength <= maxLength) {
+                field.append(c);
+            }
+        }
+    }
+
+    /**
+     * One JSON document per line; a line longer than {@code maxLength} characters is read to
+     * its end but not kept.
+     */
+    private static final class NdjsonLines {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder text = new StringBuilder();
+
+        NdjsonLines(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return the next line without its line break, or {@code null} at the end of the file
+         */
+        String next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            text.setLength(0);
+            boolean tooLong = false;
+            while (c != -1 && c != '\n') {
+                if (text.length() < maxLength) {
+                    text.append((char) c);
+                } else if (c != '\r') {
+                    tooLong = true;
+                }
+                c = reader.read();
+            }
+            if (tooLong) {
+                throw new OverlongRecordException("The line is longer than " + maxLength + " characters.");
+            }
+            if (!text.isEmpty() && text.charAt(text.length() - 1) == '\r') {
+                text.setLength(text.length() - 1);
+            }
+            return text.toString();
+        }
+    }
+
+    private static class MalformedRecordException extends IOException {
+
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+
+    // the reader is at the start of the next record again
+    private static final class OverlongRecordException extends MalformedRecordException {
+
+        OverlongRecordException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The response of an import: a line per rejected record, a progress line per chunk.
+     */
+    public final class Report {
+
+        private final Writer writer;
+
+        private Report(Writer writer) {
+            this.writer = writer;
+        }
+
+        public void error(TaskImportError error) {
+            writeLine(error, false);
+        }
+
+        public void progress(TaskImportProgress progress) {
+            writeLine(progress, true);
+        }
+
+        private void writeLine(Object value, boolean flush) {
+            try {
+                writer.write(reportWriter.writeValueAsString(value));
+                writer.write('\n');
+                if (flush) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
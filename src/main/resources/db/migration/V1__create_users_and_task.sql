@@ -0,0 +1,30 @@
+--
+-- Baseline schema. The database itself (taskmanager_directory) is created
+-- outside of the application, tables are created by Flyway on startup.
+--
+
+CREATE TABLE users (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  username VARCHAR(45) NOT NULL,
+  password VARCHAR(68) NOT NULL,
+  email VARCHAR(255) DEFAULT NULL,
+  role VARCHAR(45) NOT NULL,
+
+  PRIMARY KEY (id),
+  CONSTRAINT UK_USERS_USERNAME UNIQUE (username)
+);
+
+CREATE TABLE task (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  title VARCHAR(255) NOT NULL,
+  description TEXT,
+  due_date DATE,
+  priority VARCHAR(20),
+  status VARCHAR(20) NOT NULL,
+  user_id BIGINT NOT NULL,
+
+  PRIMARY KEY (id),
+
+  CONSTRAINT FK_TASK_USER FOREIGN KEY (user_id)
+  REFERENCES users (id) ON DELETE CASCADE
+);
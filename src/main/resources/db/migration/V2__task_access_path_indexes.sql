@@ -0,0 +1,12 @@
+--
+-- Composite indexes for the task access paths; every query is scoped to one user.
+--
+
+-- Kanban column pages: WHERE user_id = ? AND status = ? AND id > ? ORDER BY id
+CREATE INDEX IDX_TASK_USER_STATUS_ID ON task (user_id, status, id);
+
+-- status and due date filters within a user's board
+CREATE INDEX IDX_TASK_USER_STATUS_DUE ON task (user_id, status, due_date);
+
+-- lookups and scans of a single user's tasks by id
+CREATE INDEX IDX_TASK_USER_ID ON task (user_id, id);
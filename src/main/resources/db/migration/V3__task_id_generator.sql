@@ -0,0 +1,13 @@
+--
+-- Task ids come from a pooled table generator instead of AUTO_INCREMENT so
+-- Hibernate can batch inserts. Each row holds the lowest id of the next block.
+--
+
+CREATE TABLE id_generator (
+  name VARCHAR(64) NOT NULL,
+  next_val BIGINT NOT NULL,
+
+  PRIMARY KEY (name)
+);
+
+INSERT INTO id_generator (name, next_val) SELECT 'task', COALESCE(MAX(id), 0) + 1 FROM task;
@@ -0,0 +1,38 @@
+--
+-- Due-date reminders. The scheduler walks task by (due_date, id) from a watermark per
+-- reminder kind, so a run reads only the tasks that became due since the previous one.
+--
+
+CREATE INDEX IDX_TASK_DUE_ID ON task (due_date, id);
+
+-- last (due_date, task id) each kind of reminder has been delivered for
+CREATE TABLE reminder_watermark (
+  kind VARCHAR(20) NOT NULL,
+  due_date DATE NOT NULL,
+  task_id BIGINT NOT NULL,
+
+  PRIMARY KEY (kind)
+);
+
+-- reminders start with the tasks due on the day of the upgrade, older ones are not announced
+INSERT INTO reminder_watermark (kind, due_date, task_id) VALUES ('DUE_SOON', CURRENT_DATE, 0);
+INSERT INTO reminder_watermark (kind, due_date, task_id) VALUES ('OVERDUE', CURRENT_DATE, 0);
+
+-- delivered reminders; one per task, kind and due date, so a rescheduled task is reminded again
+CREATE TABLE task_notification (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  task_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  kind VARCHAR(20) NOT NULL,
+  due_date DATE NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+
+  PRIMARY KEY (id),
+  CONSTRAINT UK_TASK_NOTIFICATION UNIQUE (task_id, kind, due_date),
+
+  CONSTRAINT FK_TASK_NOTIFICATION_TASK FOREIGN KEY (task_id)
+  REFERENCES task (id) ON DELETE CASCADE
+);
+
+-- a user's notifications, newest last
+CREATE INDEX IDX_TASK_NOTIFICATION_USER_ID ON task_notification (user_id, id);
@@ -0,0 +1,20 @@
+--
+-- Dashboard statistics per user, kept up to date by every task write instead of counted
+-- on every page view. Rows are created on the first read; the reconciliation job and the
+-- daily overdue recount start from the task table.
+--
+
+CREATE TABLE user_task_stats (
+  user_id BIGINT NOT NULL,
+  to_do BIGINT NOT NULL,
+  in_progress BIGINT NOT NULL,
+  done BIGINT NOT NULL,
+  -- open tasks due before overdue_as_of; counted again when a read finds that day passed
+  overdue BIGINT NOT NULL,
+  overdue_as_of DATE NOT NULL,
+
+  PRIMARY KEY (user_id),
+
+  CONSTRAINT FK_USER_TASK_STATS_USER FOREIGN KEY (user_id)
+  REFERENCES users (id) ON DELETE CASCADE
+);
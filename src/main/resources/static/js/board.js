@@ -0,0 +1,326 @@
+// Live Kanban board: task actions go to the JSON endpoints and every open dashboard of the
+// user patches the affected card from the "task" events, without reloading the page.
+(function () {
+    'use strict';
+
+    function meta(name) {
+        const element = document.querySelector('meta[name="' + name + '"]');
+        return element ? element.content : null;
+    }
+
+    const tasksUrl = meta('tasks-url');
+    const csrfToken = meta('_csrf');
+    const csrfHeader = meta('_csrf_header');
+    const cardTemplate = document.getElementById('task-card-template');
+
+    function send(method, url, body) {
+        const headers = { 'Content-Type': 'application/json' };
+        if (csrfToken && csrfHeader) {
+            headers[csrfHeader] = csrfToken;
+        }
+        return fetch(url, {
+            method: method,
+            headers: headers,
+            credentials: 'same-origin',
+            body: body === undefined ? undefined : JSON.stringify(body)
+        }).then(function (response) {
+            if (!response.ok) {
+                throw new Error(method + ' ' + url + ' answered ' + response.status);
+            }
+            return response;
+        });
+    }
+
+    function column(status) {
+        return document.querySelector('.kanban-column[data-status="' + status + '"]');
+    }
+
+    function adjustCount(status, delta) {
+        const target = column(status);
+        if (!target) {
+            return;
+        }
+        const header = target.querySelector('.column-header');
+        const count = Number(header.dataset.count) + delta;
+        header.dataset.count = count;
+        header.textContent = header.dataset.label + ' (' + count + ')';
+    }
+
+    // header statistics; due dates are ISO strings, so they compare as text
+    const stats = document.getElementById('task-stats');
+
+    function stat(name) {
+        return stats.querySelector('[data-stat="' + name + '"]');
+    }
+
+    function adjustStat(name, delta) {
+        const element = stat(name);
+        element.textContent = Number(element.textContent) + delta;
+    }
+
+    function updateCompletion() {
+        const done = Number(stat('DONE').textContent);
+        const total = done + Number(stat('TO_DO').textContent) + Number(stat('IN_PROGRESS').textContent);
+        stat('completion').textContent = (total === 0 ? 0 : Math.floor(done * 100 / total)) + '%';
+    }
+
+    function adjustStats(card, delta) {
+        if (!stats) {
+            return;
+        }
+        adjustStat(card.status, delta);
+        if (card.status !== 'DONE' && card.dueDate && card.dueDate < stats.dataset.today) {
+            adjustStat('overdue', delta);
+        }
+        updateCompletion();
+    }
+
+    function toggleEmpty(status) {
+        const target = column(status);
+        if (target) {
+            target.querySelector('.empty-column').hidden = target.querySelector('.task-card') !== null;
+        }
+    }
+
+    function buildCard(card) {
+        const element = cardTemplate.content.firstElementChild.cloneNode(true);
+        element.classList.add(card.status);
+        element.dataset.taskId = card.id;
+        element.querySelector('input[name="ids"]').value = card.id;
+        element.querySelector('h5').textContent = card.title;
+        element.querySelector('.task-priority').textContent = 'Priority: ' + (card.priority || '');
+        element.querySelector('.task-due').textContent = card.dueDate ? 'Due: ' + card.dueDate : 'No Due Date';
+        element.querySelector('input[name="id"]').value = card.id;
+        const current = element.querySelector('option[value="' + card.status + '"]');
+        if (current) {
+            current.remove();
+        }
+        element.querySelector('.delete-btn').href = tasksUrl + '/delete/' + card.id;
+        return element;
+    }
+
+    // columns are ordered by id; a card past the loaded range arrives with "Load more" instead
+    function insertCard(card) {
+        const target = column(card.status);
+        if (!target) {
+            return;
+        }
+        const cards = Array.from(target.querySelectorAll('.task-card'));
+        const loadMore = target.querySelector('a.load-more');
+        if (loadMore && (cards.length === 0 || Number(cards[cards.length - 1].dataset.taskId) < card.id)) {
+            return;
+        }
+        const next = cards.find(function (element) { return Number(element.dataset.taskId) > card.id; });
+        target.insertBefore(buildCard(card), next || loadMore || target.querySelector('.empty-column'));
+    }
+
+    function apply(event) {
+        const card = event.card;
+        const existing = document.querySelector('.task-card[data-task-id="' + card.id + '"]');
+        if (existing) {
+            existing.remove();
+        }
+        if (event.previousStatus) {
+            adjustCount(event.previousStatus, -1);
+            adjustStats(Object.assign({}, card, { status: event.previousStatus }), -1);
+            toggleEmpty(event.previousStatus);
+        }
+        if (event.type !== 'DELETED') {
+            adjustCount(card.status, 1);
+            adjustStats(card, 1);
+            insertCard(card);
+            toggleEmpty(card.status);
+        }
+    }
+
+    // search as you type; a slower answer to an older query must not replace a newer one
+    const searchForm = document.getElementById('search-form');
+    const searchResults = document.getElementById('search-results');
+    let searchTimer = null;
+    let searchSequence = 0;
+
+    function statusLabel(status) {
+        const target = column(status);
+        return target ? target.querySelector('.column-header').dataset.label : status;
+    }
+
+    function showResults(cards) {
+        searchResults.replaceChildren();
+        cards.forEach(function (card) {
+            const item = document.createElement('li');
+            item.dataset.taskId = card.id;
+            const title = document.createElement('strong');
+            title.textContent = card.title;
+            const status = document.createElement('span');
+            status.className = 'task-status';
+            status.textContent = statusLabel(card.status);
+            item.append(title, status);
+            searchResults.append(item);
+        });
+        if (cards.length === 0) {
+            const item = document.createElement('li');
+            item.textContent = 'No matching tasks';
+            searchResults.append(item);
+        }
+        searchResults.hidden = false;
+    }
+
+    function search(query) {
+        const sequence = ++searchSequence;
+        if (query.trim() === '') {
+            searchResults.hidden = true;
+            return;
+        }
+        fetch(tasksUrl + '/search?q=' + encodeURIComponent(query), { credentials: 'same-origin' })
+            .then(function (response) { return response.json(); })
+            .then(function (cards) {
+                if (sequence === searchSequence) {
+                    showResults(cards);
+                }
+            });
+    }
+
+    if (searchForm) {
+        searchForm.elements.q.addEventListener('input', function () {
+            clearTimeout(searchTimer);
+            searchTimer = setTimeout(search, 150, searchForm.elements.q.value);
+        });
+        searchResults.addEventListener('click', function (event) {
+            const item = event.target.closest('li[data-task-id]');
+            const card = item && document.querySelector('.task-card[data-task-id="' + item.dataset.taskId + '"]');
+            if (card) {
+                card.scrollIntoView({ behavior: 'smooth', block: 'center' });
+                card.classList.add('highlight');
+                setTimeout(function () { card.classList.remove('highlight'); }, 2000);
+            }
+        });
+    }
+
+    // the import answers NDJSON: a line per rejected row and the totals after every chunk
+    const importProgress = document.getElementById('import-progress');
+    const importErrors = document.getElementById('import-errors');
+    const maxImportErrors = 100;
+
+    function importReport(report) {
+        if (report.error !== undefined) {
+            if (importErrors.children.length < maxImportErrors) {
+                const item = document.createElement('li');
+                item.textContent = 'Line ' + report.line + ': ' + report.error;
+                importErrors.append(item);
+                importErrors.hidden = false;
+            }
+            return;
+        }
+        importProgress.textContent = (report.done ? 'Import finished: ' : 'Importing: ')
+            + report.imported + ' imported, ' + report.failed + ' rejected';
+    }
+
+    function importFile(form) {
+        const file = form.elements.file.files[0];
+        const format = /\.(ndjson|jsonl)$/i.test(file.name) ? 'ndjson' : 'csv';
+        const headers = { 'Content-Type': format === 'csv' ? 'text/csv' : 'application/x-ndjson' };
+        if (csrfToken && csrfHeader) {
+            headers[csrfHeader] = csrfToken;
+        }
+        importErrors.replaceChildren();
+        importErrors.hidden = true;
+        importProgress.textContent = 'Uploading ' + file.name + '...';
+        importProgress.hidden = false;
+        const button = form.querySelector('button');
+        button.disabled = true;
+
+        fetch(tasksUrl + '/import?format=' + format, {
+            method: 'POST',
+            headers: headers,
+            credentials: 'same-origin',
+            body: file
+        }).then(function (response) {
+            if (!response.ok) {
+                throw new Error('import answered ' + response.status);
+            }
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let pending = '';
+            function pump() {
+                return reader.read().then(function (chunk) {
+                    pending += decoder.decode(chunk.value || new Uint8Array(), { stream: !chunk.done });
+                    const lines = pending.split('\n');
+                    pending = lines.pop();
+                    lines.filter(Boolean).forEach(function (line) { importReport(JSON.parse(line)); });
+                    return chunk.done ? undefined : pump();
+                });
+            }
+            return pump();
+        }).catch(function () {
+            importProgress.textContent = 'The import failed, please try again.';
+        }).finally(function () {
+            button.disabled = false;
+        });
+    }
+
+    document.addEventListener('submit', function (event) {
+        const form = event.target;
+        if (form.id === 'import-form') {
+            event.preventDefault();
+            importFile(form);
+        } else if (form.id === 'search-form') {
+            event.preventDefault();
+            clearTimeout(searchTimer);
+            search(form.elements.q.value);
+        } else if (form.id === 'quick-add-form') {
+            event.preventDefault();
+            send('POST', tasksUrl, {
+                title: form.elements.title.value,
+                status: form.elements.status.value,
+                priority: form.elements.priority.value
+            }).then(function () { form.elements.title.value = ''; })
+                .catch(function () { form.submit(); });
+        } else if (form.classList.contains('status-form') && form.closest('.task-card')) {
+            event.preventDefault();
+            send('PATCH', tasksUrl + '/' + form.elements.id.value, { status: form.elements.newStatus.value })
+                .catch(function () { form.submit(); });
+        }
+    });
+
+    document.addEventListener('click', function (event) {
+        // "Load more" swaps the link for the next page of cards of the same column
+        const link = event.target.closest('a.load-more');
+        if (link) {
+            event.preventDefault();
+            fetch(link.href, { credentials: 'same-origin' })
+                .then(function (response) { return response.text(); })
+                .then(function (html) { link.outerHTML = html; });
+            return;
+        }
+
+        const deleteLink = event.target.closest('.task-card a.delete-btn');
+        // the inline confirm() already cancelled the click when the user said no
+        if (deleteLink && !event.defaultPrevented) {
+            event.preventDefault();
+            const card = deleteLink.closest('.task-card');
+            send('DELETE', tasksUrl + '/' + card.dataset.taskId)
+                .catch(function () { window.location.href = deleteLink.href; });
+        }
+    });
+
+    if (tasksUrl && window.EventSource) {
+        const source = new EventSource(tasksUrl + '/events');
+        source.addEventListener('task', function (message) {
+            apply(JSON.parse(message.data));
+        });
+        source.addEventListener('import', function (message) {
+            const counts = JSON.parse(message.data).counts;
+            // imported cards past their due date are counted as overdue with the next reload
+            Object.keys(counts).forEach(function (status) {
+                adjustCount(status, counts[status]);
+                if (stats) {
+                    adjustStat(status, counts[status]);
+                }
+            });
+            if (stats) {
+                updateCompletion();
+            }
+            document.getElementById('import-notice').hidden = false;
+        });
+    }
+})();
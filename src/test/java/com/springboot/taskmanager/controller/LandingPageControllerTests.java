@@ -7,12 +7,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
@@ -41,4 +47,27 @@ class LandingPageControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(view().name("landing-page"));
     }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void landingPageControllerLinksAssetsThatAreCachedForAYear() throws Exception {
+        when(userService.findUserByUsername("testuser")).thenReturn(new User());
+
+        String page = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // links name the content, so a changed asset is a new URL
+        assertThat(page).contains("/images/dashboard-preview-").doesNotContain("/css/style.css\"");
+        Matcher stylesheet = Pattern.compile("/css/style-[0-9a-f]{32}\\.css").matcher(page);
+        assertThat(stylesheet.find()).isTrue();
+
+        // the gzip variant made by the build is sent as it is
+        mockMvc.perform(get(stylesheet.group())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept-Encoding"));
+    }
 }
@@ -0,0 +1,285 @@
+package com.springboot.taskmanager.controller;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import com.springboot.taskmanager.dto.TaskImportError;
+import com.springboot.taskmanager.dto.TaskImportProgress;
+import com.springboot.taskmanager.dto.TaskImportRow;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskEventHub;
+import com.springboot.taskmanager.security.AuthenticatedUser;
+import com.springboot.taskmanager.service.TaskImporter;
+import com.springboot.taskmanager.service.TaskSearchIndex;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import com.springboot.taskmanager.view.TaskExportWriter;
+import com.springboot.taskmanager.view.TaskImportReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = TaskApiController.class)
+@Import({TaskExportWriter.class, TaskImportReader.class})
+@ExtendWith(MockitoExtension.class)
+class TaskApiControllerTests {
+
+    private static final Long USER_ID = 42L;
+
+    private static final AuthenticatedUser PRINCIPAL =
+            new AuthenticatedUser(USER_ID, "testuser", "pw", "ROLE_USER");
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private TaskService taskService;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private UserService userService;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private TaskEventHub taskEventHub;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private TaskSearchIndex taskSearchIndex;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private TaskImporter taskImporter;
+
+    @Test
+    void taskApiControllerOpensEventStreamForUser() throws Exception {
+        when(taskEventHub.subscribe(USER_ID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/tasks/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(user(PRINCIPAL)))
+                .andExpect(request().asyncStarted());
+
+        verify(taskEventHub).subscribe(USER_ID);
+    }
+
+    @Test
+    void taskApiControllerSearchAnswersFromTheIndex() throws Exception {
+        when(taskSearchIndex.search(USER_ID, "release notes", 20))
+                .thenReturn(List.of(new TaskCard(9L, "Write release notes", TaskPriority.HIGH, null, TaskStatus.IN_PROGRESS)));
+
+        mockMvc.perform(get("/tasks/search")
+                        .param("q", "release notes")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(9))
+                .andExpect(jsonPath("$[0].title").value("Write release notes"))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"));
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void taskApiControllerExportStreamsCsvAttachment() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<TaskExportRow> sink = invocation.getArgument(1);
+            sink.accept(new TaskExportRow(1L, "Plan, then act", null, TaskPriority.HIGH, LocalDate.of(2026, 5, 4), TaskStatus.TO_DO));
+            return null;
+        }).when(taskService).exportTasks(eq(USER_ID), any());
+
+        MvcResult started = mockMvc.perform(get("/tasks/export")
+                        .with(user(PRINCIPAL)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,title,description,priority,dueDate,status\r\n"
+                        + "1,\"Plan, then act\",,HIGH,2026-05-04,TO_DO\r\n"));
+    }
+
+    @Test
+    void taskApiControllerExportRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/tasks/export")
+                        .param("format", "xlsx")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void taskApiControllerImportStreamsTheReport() throws Exception {
+        List<TaskImportRow> rows = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            Consumer<Consumer<TaskImportRow>> source = invocation.getArgument(1);
+            Consumer<TaskImportError> errors = invocation.getArgument(2);
+            Consumer<TaskImportProgress> progress = invocation.getArgument(3);
+            source.accept(rows::add);
+            errors.accept(new TaskImportError(3, "Task title cannot be empty."));
+            TaskImportProgress result = new TaskImportProgress(1, 1, true);
+            progress.accept(result);
+            return result;
+        }).when(taskImporter).importTasks(eq(USER_ID), any(), any(), any());
+
+        MvcResult started = mockMvc.perform(post("/tasks/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("title,priority\nWrite docs,HIGH\n,LOW\n")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"line\":3,\"error\":\"Task title cannot be empty.\"}\n"
+                        + "{\"imported\":1,\"failed\":1,\"done\":true}\n"));
+        assertThat(rows).containsExactly(
+                new TaskImportRow(2, "Write docs", null, "HIGH", null, null),
+                new TaskImportRow(3, null, null, "LOW", null, null));
+    }
+
+    @Test
+    void taskApiControllerImportRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(post("/tasks/import")
+                        .param("format", "xlsx")
+                        .content("irrelevant")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskImporter);
+    }
+
+    @Test
+    void taskApiControllerCreateTask() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\" Write docs \",\"priority\":\"HIGH\"}")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(taskService).saveTask(argThat((Task task) ->
+                task.getTitle().equals("Write docs")
+                        && task.getStatus() == TaskStatus.TO_DO
+                        && task.getPriority() == TaskPriority.HIGH), eq(USER_ID));
+    }
+
+    @Test
+    void taskApiControllerCreateTaskRejectsBlankTitle() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"  \"}")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, Mockito.never()).saveTask(any(), any());
+    }
+
+    @Test
+    void taskApiControllerCreateTaskRequiresCsrfToken() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"No token\"}")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isForbidden());
+
+        verify(taskService, Mockito.never()).saveTask(any(), any());
+    }
+
+    @Test
+    void taskApiControllerUpdateStatus() throws Exception {
+        when(taskService.updateTaskStatus(1L, USER_ID, TaskStatus.DONE)).thenReturn(Optional.of("Test Task"));
+
+        mockMvc.perform(patch("/tasks/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void taskApiControllerUpdateStatusTaskNotFound() throws Exception {
+        when(taskService.updateTaskStatus(99L, USER_ID, TaskStatus.DONE)).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/tasks/99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void taskApiControllerUpdateStatusRejectsUnknownStatus() throws Exception {
+        mockMvc.perform(patch("/tasks/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"ARCHIVED\"}")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, Mockito.never()).updateTaskStatus(any(), any(), any());
+    }
+
+    @Test
+    void taskApiControllerDeleteTask() throws Exception {
+        when(taskService.deleteTaskByIdAndUser(3L, USER_ID)).thenReturn(true);
+
+        mockMvc.perform(delete("/tasks/3")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void taskApiControllerDeleteTaskNotFound() throws Exception {
+        when(taskService.deleteTaskByIdAndUser(4L, USER_ID)).thenReturn(false);
+
+        mockMvc.perform(delete("/tasks/4")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,128 @@
+package com.springboot.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.springboot.taskmanager.config.ApiConfig;
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.security.AuthenticatedUser;
+import com.springboot.taskmanager.service.TaskService;
+import com.springboot.taskmanager.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = TaskApiV1Controller.class)
+@Import(ApiConfig.class)
+@ExtendWith(MockitoExtension.class)
+class TaskApiV1ControllerTests {
+
+    private static final Long USER_ID = 42L;
+
+    private static final AuthenticatedUser PRINCIPAL =
+            new AuthenticatedUser(USER_ID, "testuser", "pw", "ROLE_USER");
+
+    private static final TaskCard RELEASE_NOTES =
+            new TaskCard(9L, "Write release notes", TaskPriority.HIGH, LocalDate.of(2026, 5, 4), TaskStatus.IN_PROGRESS);
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private TaskService taskService;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private UserService userService;
+
+    @Test
+    void taskApiV1ControllerPagesTasksByCursor() throws Exception {
+        when(taskService.findColumnPage(USER_ID, null, 7L, 2)).thenReturn(new TaskColumnPage(null,
+                List.of(RELEASE_NOTES, new TaskCard(11L, "Plan", null, null, TaskStatus.TO_DO)), 11L));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("cursor", "7")
+                        .param("limit", "2")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.tasks[0].id").value(9))
+                .andExpect(jsonPath("$.tasks[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.tasks[0].dueDate").value("2026-05-04"))
+                // absent values are left out, not written as null
+                .andExpect(jsonPath("$.tasks[1].priority").doesNotExist())
+                .andExpect(jsonPath("$.tasks[1].dueDate").doesNotExist())
+                .andExpect(jsonPath("$.next").value(11));
+    }
+
+    @Test
+    void taskApiV1ControllerCapsThePageSizeAndRejectsAnEmptyOne() throws Exception {
+        when(taskService.findColumnPage(USER_ID, TaskStatus.DONE, null, 200))
+                .thenReturn(new TaskColumnPage(TaskStatus.DONE, List.of(), null));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("status", "DONE")
+                        .param("limit", "100000")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks").isEmpty())
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("limit", "0")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(taskService, Mockito.times(1)).findColumnPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    void taskApiV1ControllerAnswersTheBoardInCbor() throws Exception {
+        EnumMap<TaskStatus, TaskColumnPage> columns = new EnumMap<>(TaskStatus.class);
+        columns.put(TaskStatus.TO_DO, new TaskColumnPage(TaskStatus.TO_DO, List.of(), null));
+        columns.put(TaskStatus.IN_PROGRESS, new TaskColumnPage(TaskStatus.IN_PROGRESS, List.of(RELEASE_NOTES), 9L));
+        columns.put(TaskStatus.DONE, new TaskColumnPage(TaskStatus.DONE, List.of(), null));
+        TaskStats stats = new TaskStats(0, 51, 3, 1);
+        when(taskService.findStats(USER_ID)).thenReturn(stats);
+        when(taskService.findBoard(USER_ID, 50, stats)).thenReturn(new TaskBoard(columns, new EnumMap<>(TaskStatus.class)));
+
+        byte[] body = mockMvc.perform(get("/api/v1/board")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode board = new CBORMapper().readTree(body);
+        JsonNode inProgress = board.path("columns").path("IN_PROGRESS");
+        assertThat(inProgress.path("tasks").path(0).path("title").asText()).isEqualTo("Write release notes");
+        assertThat(inProgress.path("tasks").path(0).path("dueDate").asText()).isEqualTo("2026-05-04");
+        assertThat(inProgress.path("next").asLong()).isEqualTo(9L);
+        assertThat(board.path("stats").path("inProgress").asLong()).isEqualTo(51L);
+        assertThat(board.path("stats").path("overdue").asLong()).isEqualTo(1L);
+    }
+}
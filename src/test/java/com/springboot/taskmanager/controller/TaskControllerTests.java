@@ -1,35 +1,63 @@
 package com.springboot.taskmanager.controller;
 
+import com.springboot.taskmanager.config.SchedulingConfig;
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.dto.TaskStats;
 import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
 import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.event.TaskChangedEvent;
+import com.springboot.taskmanager.security.AuthenticatedUser;
+import com.springboot.taskmanager.service.BoardVersions;
 import com.springboot.taskmanager.service.TaskService;
 import com.springboot.taskmanager.service.UserService;
+import com.springboot.taskmanager.view.BoardColumnCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = TaskController.class)
+@Import({BoardVersions.class, BoardColumnCache.class, SchedulingConfig.class})
 @ExtendWith(MockitoExtension.class)
 class TaskControllerTests {
 
+    private static final Long USER_ID = 42L;
+
+    private static final AuthenticatedUser PRINCIPAL =
+            new AuthenticatedUser(USER_ID, "testuser", "pw", "ROLE_USER");
+
     @Autowired
     @SuppressWarnings("unused")
     private MockMvc mockMvc;
@@ -42,108 +70,222 @@ class TaskControllerTests {
     @SuppressWarnings("unused")
     private UserService userService;
 
+    @Autowired
+    @SuppressWarnings("unused")
+    private BoardVersions boardVersions;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private BoardColumnCache boardColumnCache;
+
+    @BeforeEach
+    void clearColumnCache() {
+        boardColumnCache.clear();
+    }
+
+    @BeforeEach
+    void stubStats() {
+        when(taskService.findStats(USER_ID)).thenReturn(new TaskStats(51, 0, 3, 2));
+    }
+
+    private static TaskBoard board(TaskColumnPage todoPage) {
+        EnumMap<TaskStatus, TaskColumnPage> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            columns.put(status, new TaskColumnPage(status, Collections.emptyList(), null));
+        }
+        if (todoPage != null) {
+            columns.put(TaskStatus.TO_DO, todoPage);
+        }
+        EnumMap<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        counts.put(TaskStatus.TO_DO, 51L);
+        return new TaskBoard(columns, counts);
+    }
+
     @Test
-    @WithMockUser(username = "testuser")
     void taskControllerListTasks() throws Exception {
-        String username = "testuser";
+        TaskCard sampleTask = new TaskCard(1L, "Sample", TaskPriority.MEDIUM, null, TaskStatus.TO_DO);
+        when(taskService.findBoard(eq(USER_ID), eq(50), any(), any()))
+                .thenReturn(board(new TaskColumnPage(TaskStatus.TO_DO, List.of(sampleTask), 1L)));
 
-        User user = new User();
-        user.setUsername(username);
-        when(userService.findUserByUsername(username)).thenReturn(user);
+        mockMvc.perform(get("/tasks").with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("task-list"))
+                .andExpect(model().attributeExists("columns"))
+                .andExpect(model().attributeExists("task"))
+                .andExpect(content().string(containsString("TO DO (51)")))
+                .andExpect(content().string(containsString("IN PROGRESS (0)")))
+                .andExpect(content().string(containsString("/tasks/column?status=TO_DO&amp;after=1")))
+                .andExpect(content().string(containsString("data-task-id=\"1\"")))
+                .andExpect(content().string(containsString("<strong data-stat=\"overdue\">2</strong>")))
+                .andExpect(content().string(containsString("<strong data-stat=\"completion\">5%</strong>")));
+
+        verify(taskService).findBoard(eq(USER_ID), eq(50), eq(EnumSet.allOf(TaskStatus.class)), any());
+        // the header and the column counts share one statistics read
+        verify(taskService, Mockito.times(1)).findStats(USER_ID);
+        verify(userService, Mockito.never()).findUserByUsername(anyString());
+    }
 
-        Task sampleTask = Task.builder().title("Sample").build();
-        when(taskService.findAllUserTasks(user)).thenReturn(Collections.singletonList(sampleTask));
+    @Test
+    void taskControllerListTasksAnswersNotModifiedUntilBoardChanges() throws Exception {
+        when(taskService.findBoard(eq(USER_ID), eq(50), any(), any())).thenReturn(board(null));
+        MockHttpSession session = new MockHttpSession();
 
-        mockMvc.perform(get("/tasks"))
+        String etag = mockMvc.perform(get("/tasks").session(session).with(user(PRINCIPAL)))
                 .andExpect(status().isOk())
-                .andExpect(view().name("task-list"))
-                .andExpect(model().attributeExists("tasks"))
-                .andExpect(model().attributeExists("task"));
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tasks").session(session).header("If-None-Match", etag).with(user(PRINCIPAL)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(taskService, Mockito.times(1)).findBoard(eq(USER_ID), eq(50), any(), any());
+
+        // another session holds another CSRF token, so it gets its own page (from cached columns)
+        mockMvc.perform(get("/tasks").session(new MockHttpSession()).header("If-None-Match", etag).with(user(PRINCIPAL)))
+                .andExpect(status().isOk());
+
+        boardVersions.onTaskChanged(TaskChangedEvent.created(USER_ID, new TaskCard(7L, "New", null, null, TaskStatus.TO_DO)));
+
+        mockMvc.perform(get("/tasks").session(session).header("If-None-Match", etag).with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+        verify(taskService).findBoard(eq(USER_ID), eq(50), eq(EnumSet.of(TaskStatus.TO_DO)), any());
+        verify(taskService, Mockito.times(2)).findBoard(eq(USER_ID), eq(50), any(), any());
+    }
+
+    @Test
+    void taskControllerListTasksRendersOnlyChangedColumns() throws Exception {
+        TaskCard sampleTask = new TaskCard(1L, "Sample", TaskPriority.MEDIUM, null, TaskStatus.TO_DO);
+        when(taskService.findBoard(eq(USER_ID), eq(50), any(), any()))
+                .thenReturn(board(new TaskColumnPage(TaskStatus.TO_DO, List.of(sampleTask), null)));
+
+        mockMvc.perform(get("/tasks").with(user(PRINCIPAL)).with(csrf()))
+                .andExpect(status().isOk());
+        verify(taskService).findBoard(eq(USER_ID), eq(50), eq(EnumSet.allOf(TaskStatus.class)), any());
+
+        // a new session gets the cached columns, with its own CSRF token in the forms
+        mockMvc.perform(get("/tasks").with(user(PRINCIPAL)).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Sample")))
+                .andExpect(content().string(not(containsString("csrf-token__"))));
+        verify(taskService, Mockito.times(1)).findBoard(eq(USER_ID), eq(50), any(), any());
+
+        boardVersions.onTaskChanged(TaskChangedEvent.moved(USER_ID, sampleTask, TaskStatus.DONE));
+
+        mockMvc.perform(get("/tasks").with(user(PRINCIPAL)).with(csrf()))
+                .andExpect(status().isOk());
+        verify(taskService).findBoard(eq(USER_ID), eq(50), eq(EnumSet.of(TaskStatus.TO_DO, TaskStatus.DONE)), any());
+    }
+
+    @Test
+    void taskControllerListTasksWithFlashMessageIsNotCached() throws Exception {
+        when(taskService.findBoard(eq(USER_ID), eq(50), any(), any())).thenReturn(board(null));
+
+        mockMvc.perform(get("/tasks").flashAttr("successMessage", "Task deleted successfully.").with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(content().string(containsString("Task deleted successfully.")));
+    }
 
-        verify(taskService).findAllUserTasks(user);
+    @Test
+    void taskControllerLoadColumnPage() throws Exception {
+        TaskCard nextTask = new TaskCard(51L, "Next page task", TaskPriority.LOW, null, TaskStatus.DONE);
+        when(taskService.findColumnPage(USER_ID, TaskStatus.DONE, 50L, 50))
+                .thenReturn(new TaskColumnPage(TaskStatus.DONE, List.of(nextTask), null));
+
+        mockMvc.perform(get("/tasks/column")
+                        .param("status", "DONE")
+                        .param("after", "50")
+                        .with(user(PRINCIPAL)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Next page task")))
+                .andExpect(content().string(not(containsString("load-more"))));
     }
 
     @Test
     @WithMockUser(username = "testuser")
-    void taskControllerSaveTask() throws Exception {
-        String username = "testuser";
+    void taskControllerListTasksResolvesIdForForeignPrincipal() throws Exception {
+        User user = User.builder().id(USER_ID).username("testuser").build();
+        when(userService.findUserByUsername("testuser")).thenReturn(user);
+        when(taskService.findBoard(eq(USER_ID), eq(50), any(), any())).thenReturn(board(null));
 
-        User user = new User();
-        user.setUsername(username);
-        when(userService.findUserByUsername(username)).thenReturn(user);
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("task-list"));
 
+        verify(taskService).findBoard(eq(USER_ID), eq(50), eq(EnumSet.allOf(TaskStatus.class)), any());
+    }
+
+    @Test
+    void taskControllerSaveTask() throws Exception {
         mockMvc.perform(post("/tasks/save")
                         .param("title", "SaveTask")
+                        .with(user(PRINCIPAL))
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/tasks"))
                 .andExpect(flash().attributeExists("successMessage"));
 
-        verify(taskService).saveTask(any(Task.class), eq(user));
+        verify(taskService).saveTask(any(Task.class), eq(USER_ID));
     }
 
     @Test
-    @WithMockUser(username = "testuser")
     void taskControllerUpdateStatus() throws Exception {
-        String username = "testuser";
         Long taskId = 1L;
         String status = "DONE";
 
-        User user = new User();
-        user.setUsername(username);
-
-        when(userService.findUserByUsername(username)).thenReturn(user);
-
-        Task existingTask = Task.builder().id(taskId).title("Test Task").status("TODO").build();
-
-        when(taskService.findTaskByIdAndUser(taskId, user))
-                .thenReturn(Optional.of(existingTask));
+        when(taskService.updateTaskStatus(taskId, USER_ID, TaskStatus.DONE))
+                .thenReturn(Optional.of("Test Task"));
 
         mockMvc.perform(post("/tasks/update-status")
                         .param("id", taskId.toString())
                         .param("newStatus", status)
+                        .with(user(PRINCIPAL))
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/tasks"))
                 .andExpect(flash().attribute("successMessage", "Task 'Test Task' moved to DONE."));
 
-        verify(taskService).saveTask(any(Task.class), eq(user));
+        verify(taskService).updateTaskStatus(taskId, USER_ID, TaskStatus.DONE);
+        verify(taskService, Mockito.never()).saveTask(any(), any());
     }
 
     @Test
-    @WithMockUser(username = "testuser")
-    void taskControllerDeleteTask() throws Exception {
-        String username = "testuser";
-        Long taskId = 3L;
-
-        User user = new User();
-        user.setUsername(username);
+    void taskControllerUpdateStatusRejectsUnknownStatus() throws Exception {
+        mockMvc.perform(post("/tasks/update-status")
+                        .param("id", "1")
+                        .param("newStatus", "ARCHIVED")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
 
-        when(userService.findUserByUsername(username)).thenReturn(user);
+        verify(taskService, Mockito.never()).updateTaskStatus(any(), any(), any());
+    }
 
-        Task existingTask = Task.builder().id(taskId).title("Test Task").status("TODO").build();
+    @Test
+    void taskControllerDeleteTask() throws Exception {
+        Long taskId = 3L;
 
-        when(taskService.deleteTaskByIdAndUser(existingTask.getId(), user))
+        when(taskService.deleteTaskByIdAndUser(taskId, USER_ID))
                 .thenReturn(true);
 
         mockMvc.perform(get(String.format("/tasks/delete/%d", taskId))
+                        .with(user(PRINCIPAL))
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/tasks"))
                 .andExpect(flash().attribute("successMessage", "Task deleted successfully."));
 
-        verify(taskService).deleteTaskByIdAndUser(taskId,user);
+        verify(taskService).deleteTaskByIdAndUser(taskId, USER_ID);
     }
 
     @Test
-    @WithMockUser(username = "testuser")
     void taskControllerSaveTaskEmptyTitle() throws Exception {
-        User user = new User();
-        user.setUsername("testuser");
-        when(userService.findUserByUsername("testuser")).thenReturn(user);
-
         mockMvc.perform(post("/tasks/save")
                         .param("title", "   ")
+                        .with(user(PRINCIPAL))
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(flash().attribute("errorMessage", "Task title cannot be empty."));
@@ -152,19 +294,81 @@ class TaskControllerTests {
     }
 
     @Test
-    @WithMockUser(username = "testuser")
-    void taskControllerUpdateStatusTaskNotFound() throws Exception {
-        User user = new User();
-        user.setUsername("testuser");
-        when(userService.findUserByUsername("testuser")).thenReturn(user);
+    void taskControllerSaveTaskRejectsUnknownStatus() throws Exception {
+        mockMvc.perform(post("/tasks/save")
+                        .param("title", "Sneaky")
+                        .param("status", "ARCHIVED")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("errorMessage", "Invalid task status or priority."));
 
-        when(taskService.findTaskByIdAndUser(99L, user)).thenReturn(Optional.empty());
+        verify(taskService, Mockito.never()).saveTask(any(), any());
+    }
+
+    @Test
+    void taskControllerUpdateStatusTaskNotFound() throws Exception {
+        when(taskService.updateTaskStatus(99L, USER_ID, TaskStatus.DONE)).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/tasks/update-status")
                         .param("id", "99")
                         .param("newStatus", "DONE")
+                        .with(user(PRINCIPAL))
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(flash().attribute("errorMessage", "Task not found or unauthorized access."));
     }
+
+    @Test
+    void taskControllerBatchSaveCreatesOneTaskPerLine() throws Exception {
+        mockMvc.perform(post("/tasks/batch/save")
+                        .param("titles", "First\n  \nSecond\n")
+                        .param("priority", "HIGH")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("successMessage", "2 tasks added."));
+
+        verify(taskService).saveTasks(argThat(tasks ->
+                tasks.size() == 2
+                        && tasks.getFirst().getTitle().equals("First")
+                        && tasks.getLast().getStatus() == TaskStatus.TO_DO
+                        && tasks.getLast().getPriority() == TaskPriority.HIGH), eq(USER_ID));
+    }
+
+    @Test
+    void taskControllerBatchUpdateStatus() throws Exception {
+        when(taskService.updateTaskStatuses(List.of(1L, 2L, 3L), USER_ID, TaskStatus.IN_PROGRESS)).thenReturn(3);
+
+        mockMvc.perform(post("/tasks/batch/update-status")
+                        .param("ids", "1", "2", "3")
+                        .param("newStatus", "IN_PROGRESS")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("successMessage", "3 tasks moved to IN_PROGRESS."));
+    }
+
+    @Test
+    void taskControllerBatchDelete() throws Exception {
+        when(taskService.deleteTasks(List.of(4L, 5L), USER_ID)).thenReturn(2);
+
+        mockMvc.perform(post("/tasks/batch/delete")
+                        .param("ids", "4", "5")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("successMessage", "2 tasks deleted."));
+    }
+
+    @Test
+    void taskControllerBatchDeleteWithoutSelection() throws Exception {
+        mockMvc.perform(post("/tasks/batch/delete")
+                        .with(user(PRINCIPAL))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("errorMessage", "No tasks selected."));
+
+        verify(taskService, Mockito.never()).deleteTasks(any(), any());
+    }
 }
@@ -0,0 +1,113 @@
+package com.springboot.taskmanager.event;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskEventHubTests {
+
+    private static final Long USER_ID = 42L;
+
+    private final TaskEventHub hub = new TaskEventHub(Duration.ofMinutes(30), 2, 3);
+
+    /**
+     * Records what would be written to the stream; blocks each write until released, or fails it.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch released;
+        private final boolean failing;
+
+        RecordingEmitter(CountDownLatch released, boolean failing) {
+            this.released = released;
+            this.failing = failing;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hub.close();
+    }
+
+    private static TaskChangedEvent created(long taskId) {
+        return TaskChangedEvent.created(USER_ID, new TaskCard(taskId, "Task " + taskId, null, null, TaskStatus.TO_DO));
+    }
+
+    @Test
+    void taskEventHubQueuesEventsWithoutWaitingForASlowStream() throws InterruptedException {
+        CountDownLatch released = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(released, false);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0), false);
+        hub.subscribe(USER_ID, slow);
+        hub.subscribe(USER_ID, fast);
+
+        // returns while the slow stream is still blocked in its first write
+        hub.onTaskChanged(created(1L));
+        hub.onTaskChanged(created(2L));
+        assertThat(slow.sent).isEmpty();
+
+        released.countDown();
+        hub.close();
+
+        // in order on every stream
+        for (RecordingEmitter emitter : List.of(slow, fast)) {
+            assertThat(emitter.sent).hasSize(2);
+            assertThat(emitter.sent.get(0)).startsWith("event:task\n").contains("id=1,");
+            assertThat(emitter.sent.get(1)).contains("id=2,");
+        }
+    }
+
+    @Test
+    void taskEventHubHeartbeatDropsStreamsThatFail() throws InterruptedException {
+        RecordingEmitter live = new RecordingEmitter(new CountDownLatch(0), false);
+        hub.subscribe(USER_ID, live);
+        hub.subscribe(USER_ID, new RecordingEmitter(new CountDownLatch(0), true));
+
+        hub.heartbeat();
+        hub.close();
+
+        assertThat(hub.subscriberCount(USER_ID)).isEqualTo(1);
+        assertThat(live.sent).containsExactly(":heartbeat\n\n");
+    }
+
+    @Test
+    void taskEventHubClosesAStreamTooFarBehind() {
+        RecordingEmitter stuck = new RecordingEmitter(new CountDownLatch(1), false);
+        hub.subscribe(USER_ID, stuck);
+
+        // one event in the write, three queued, the fifth is one too many
+        for (long taskId = 1; taskId <= 5; taskId++) {
+            hub.onTaskChanged(created(taskId));
+        }
+
+        assertThat(hub.subscriberCount(USER_ID)).isZero();
+        stuck.released.countDown();
+    }
+}
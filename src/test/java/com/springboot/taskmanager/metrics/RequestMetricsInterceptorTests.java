@@ -0,0 +1,74 @@
+package com.springboot.taskmanager.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestMetricsInterceptorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+    private final RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry, sqlStatementCounter);
+
+    @Test
+    void requestMetricsInterceptorRecordsStatementsAndRenderTime() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        sqlStatementCounter.prepared();
+        sqlStatementCounter.prepared();
+        interceptor.postHandle(request, response, new Object(), new ModelAndView("task-list"));
+        sqlStatementCounter.prepared();
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(meterRegistry.get("taskmanager.request.sql.statements").tag("uri", "/tasks")
+                .summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("taskmanager.view.render").tag("view", "task-list")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestMetricsInterceptorSkipsRenderTimeForRedirects() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/tasks/save");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.postHandle(request, response, new Object(), new ModelAndView("redirect:/tasks"));
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(meterRegistry.find("taskmanager.view.render").timer()).isNull();
+        assertThat(meterRegistry.get("taskmanager.request.sql.statements").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sqlStatementCounterIgnoresStatementsOutsideARequest() {
+        sqlStatementCounter.prepared();
+
+        sqlStatementCounter.start();
+        assertThat(sqlStatementCounter.stop()).isZero();
+    }
+
+    @Test
+    void sqlStatementCounterCountsStatementsOfPlainJdbcToo() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-counter");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(sqlStatementCounter.countStatements(h2));
+
+        sqlStatementCounter.start();
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        jdbcTemplate.queryForObject("SELECT ?", Integer.class, 2);
+        jdbcTemplate.batchUpdate("CREATE TABLE counted (id INT)", "INSERT INTO counted VALUES (1)");
+
+        // a batch is one statement, like a Hibernate batch of inserts
+        assertThat(sqlStatementCounter.stop()).isEqualTo(3);
+    }
+}
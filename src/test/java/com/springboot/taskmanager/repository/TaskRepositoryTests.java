@@ -1,16 +1,27 @@
 package com.springboot.taskmanager.repository;
 
+import com.springboot.taskmanager.dto.StatusCount;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import com.springboot.taskmanager.dto.TaskSearchDocument;
 import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
 import com.springboot.taskmanager.entity.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -27,6 +38,14 @@ class TaskRepositoryTests {
     @SuppressWarnings("unused")
     private UserRepository userRepository;
 
+    @Autowired
+    @SuppressWarnings("unused")
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TestEntityManager entityManager;
+
     @Test
     void taskRepositorySaveAndFindByUser() {
         User user = User.builder()
@@ -41,8 +60,8 @@ class TaskRepositoryTests {
                 .title("Test Task")
                 .description("A task for testing")
                 .dueDate(LocalDate.now().plusDays(1))
-                .priority("HIGH")
-                .status("TO_DO")
+                .priority(TaskPriority.HIGH)
+                .status(TaskStatus.TO_DO)
                 .user(user)
                 .build();
 
@@ -50,16 +69,58 @@ class TaskRepositoryTests {
         assertThat(saved.getId()).isNotNull();
 
         // find by user
-        List<Task> tasks = taskRepository.findByUser(user);
+        List<Task> tasks = taskRepository.findByUserId(user.getId());
         assertThat(tasks).isNotEmpty().hasSize(1);
         assertThat(tasks.getFirst().getTitle()).isEqualTo("Test Task");
 
         // find by id and user
-        Task found = taskRepository.findByIdAndUser(saved.getId(), user);
+        Task found = taskRepository.findByIdAndUserId(saved.getId(), user.getId());
         assertThat(found).isNotNull();
         assertThat(found.getTitle()).isEqualTo("Test Task");
     }
 
+    @Test
+    void taskRepositoryStreamsSearchDocumentsWithOwnerAndDescription() {
+        User user = userRepository.save(User.builder()
+                .username("searchUser")
+                .password("pw")
+                .role("ROLE_USER")
+                .build());
+        Task task = taskRepository.save(Task.builder()
+                .title("Indexed")
+                .description("full text")
+                .priority(TaskPriority.HIGH)
+                .status(TaskStatus.DONE)
+                .user(user)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<TaskSearchDocument> documents = taskRepository.streamSearchDocuments()) {
+            assertThat(documents.filter(document -> document.userId().equals(user.getId())).toList())
+                    .containsExactly(new TaskSearchDocument(user.getId(), task.getId(), "Indexed", "full text",
+                            TaskPriority.HIGH, null, TaskStatus.DONE));
+        }
+    }
+
+    @Test
+    void taskRepositoryStreamsOneUsersExportRowsInIdOrder() {
+        User owner = userRepository.save(User.builder().username("exportOwner").password("pw").role("ROLE_USER").build());
+        User other = userRepository.save(User.builder().username("exportOther").password("pw").role("ROLE_USER").build());
+        Task second = taskRepository.save(Task.builder().title("Second").status(TaskStatus.DONE).user(owner).build());
+        taskRepository.save(Task.builder().title("Not mine").status(TaskStatus.TO_DO).user(other).build());
+        Task first = taskRepository.save(Task.builder().title("First").description("notes")
+                .priority(TaskPriority.LOW).dueDate(LocalDate.of(2026, 3, 1)).status(TaskStatus.TO_DO).user(owner).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<TaskExportRow> rows = taskRepository.streamExportRowsByUserId(owner.getId())) {
+            assertThat(rows.toList()).containsExactly(
+                    new TaskExportRow(second.getId(), "Second", null, null, null, TaskStatus.DONE),
+                    new TaskExportRow(first.getId(), "First", "notes", TaskPriority.LOW, LocalDate.of(2026, 3, 1), TaskStatus.TO_DO));
+        }
+    }
+
     @Test
     void taskRepositoryFindByUserWhenNoTasks() {
         User user = User.builder()
@@ -70,7 +131,7 @@ class TaskRepositoryTests {
                 .build();
         user = userRepository.save(user);
 
-        List<Task> tasks = taskRepository.findByUser(user);
+        List<Task> tasks = taskRepository.findByUserId(user.getId());
         assertThat(tasks).isEmpty();
     }
 
@@ -88,8 +149,8 @@ class TaskRepositoryTests {
                 .title("User1 Task")
                 .description("desc")
                 .dueDate(LocalDate.now())
-                .priority("LOW")
-                .status("TO_DO")
+                .priority(TaskPriority.LOW)
+                .status(TaskStatus.TO_DO)
                 .user(user1)
                 .build();
         Task saved = taskRepository.save(task);
@@ -102,7 +163,7 @@ class TaskRepositoryTests {
                 .build();
         user2 = userRepository.save(user2);
 
-        Task found = taskRepository.findByIdAndUser(saved.getId(), user2);
+        Task found = taskRepository.findByIdAndUserId(saved.getId(), user2.getId());
         assertThat(found).isNull();
     }
 
@@ -119,8 +180,8 @@ class TaskRepositoryTests {
         Task task = Task.builder()
                 .description("no title")
                 .dueDate(LocalDate.now())
-                .priority("MEDIUM")
-                .status("TO_DO")
+                .priority(TaskPriority.MEDIUM)
+                .status(TaskStatus.TO_DO)
                 .user(user)
                 .build();
 
@@ -133,8 +194,8 @@ class TaskRepositoryTests {
                 .title("NoUser")
                 .description("no user")
                 .dueDate(LocalDate.now())
-                .priority("LOW")
-                .status("TO_DO")
+                .priority(TaskPriority.LOW)
+                .status(TaskStatus.TO_DO)
                 .build();
 
         assertThrows(DataIntegrityViolationException.class, () -> taskRepository.saveAndFlush(task));
@@ -152,22 +213,22 @@ class TaskRepositoryTests {
 
         Task task = Task.builder()
                 .title("Old Title")
-                .status("TO_DO")
+                .status(TaskStatus.TO_DO)
                 .description("old")
                 .dueDate(LocalDate.now())
-                .priority("LOW")
+                .priority(TaskPriority.LOW)
                 .user(user)
                 .build();
         Task saved = taskRepository.save(task);
 
         saved.setTitle("New Title");
-        saved.setStatus("DONE");
+        saved.setStatus(TaskStatus.DONE);
         taskRepository.saveAndFlush(saved);
 
-        Task updated = taskRepository.findByIdAndUser(saved.getId(), user);
+        Task updated = taskRepository.findByIdAndUserId(saved.getId(), user.getId());
         assertThat(updated).isNotNull();
         assertThat(updated.getTitle()).isEqualTo("New Title");
-        assertThat(updated.getStatus()).isEqualTo("DONE");
+        assertThat(updated.getStatus()).isEqualTo(TaskStatus.DONE);
     }
 
     @Test
@@ -184,8 +245,8 @@ class TaskRepositoryTests {
                 .title("ToDelete")
                 .description("delete me")
                 .dueDate(LocalDate.now())
-                .priority("LOW")
-                .status("TO_DO")
+                .priority(TaskPriority.LOW)
+                .status(TaskStatus.TO_DO)
                 .user(user)
                 .build();
         Task saved = taskRepository.save(task);
@@ -194,7 +255,130 @@ class TaskRepositoryTests {
         Optional<Task> opt = taskRepository.findById(saved.getId());
         assertThat(opt).isEmpty();
 
-        List<Task> tasks = taskRepository.findByUser(user);
+        List<Task> tasks = taskRepository.findByUserId(user.getId());
         assertThat(tasks).isEmpty();
     }
+
+    @Test
+    void taskRepositoryFindColumnPageSeeksPastCursor() {
+        User user = User.builder()
+                .username("pageUser")
+                .password("pw")
+                .email("page@example.com")
+                .role("ROLE_USER")
+                .build();
+        user = userRepository.save(user);
+
+        for (int i = 0; i < 5; i++) {
+            taskRepository.save(Task.builder().title("Todo " + i).status(TaskStatus.TO_DO).user(user).build());
+        }
+        taskRepository.save(Task.builder().title("Done").status(TaskStatus.DONE).user(user).build());
+
+        List<TaskCard> firstPage = taskRepository.findColumnPage(user.getId(), TaskStatus.TO_DO, 0L, Limit.of(3));
+        assertThat(firstPage).extracting(TaskCard::title).containsExactly("Todo 0", "Todo 1", "Todo 2");
+        assertThat(firstPage).extracting(TaskCard::status).containsOnly(TaskStatus.TO_DO);
+
+        List<TaskCard> secondPage = taskRepository.findColumnPage(user.getId(), TaskStatus.TO_DO, firstPage.getLast().id(), Limit.of(3));
+        assertThat(secondPage).extracting(TaskCard::title).containsExactly("Todo 3", "Todo 4");
+
+        assertThat(taskRepository.countByStatus(user.getId()))
+                .containsExactlyInAnyOrder(new StatusCount(TaskStatus.TO_DO, 5L), new StatusCount(TaskStatus.DONE, 1L));
+
+        // across all columns, as the API pages
+        List<TaskCard> lastPage = taskRepository.findTaskPage(user.getId(), secondPage.getFirst().id(), Limit.of(3));
+        assertThat(lastPage).extracting(TaskCard::title).containsExactly("Todo 4", "Done");
+    }
+
+    @Test
+    void taskRepositoryBulkStatusUpdateAndDeleteAreScopedToOwner() {
+        User owner = userRepository.save(User.builder()
+                .username("bulkOwner")
+                .password("pw")
+                .email("owner@example.com")
+                .role("ROLE_USER")
+                .build());
+        User stranger = userRepository.save(User.builder()
+                .username("bulkStranger")
+                .password("pw")
+                .email("stranger@example.com")
+                .role("ROLE_USER")
+                .build());
+
+        Task saved = taskRepository.saveAndFlush(Task.builder().title("Bulk").status(TaskStatus.TO_DO).user(owner).build());
+
+        assertThat(taskRepository.updateStatusByIdAndUserId(saved.getId(), stranger.getId(), TaskStatus.DONE)).isZero();
+        assertThat(taskRepository.updateStatusByIdAndUserId(saved.getId(), owner.getId(), TaskStatus.DONE)).isEqualTo(1);
+        assertThat(taskRepository.lockCardByIdAndUserId(saved.getId(), stranger.getId())).isEmpty();
+        assertThat(taskRepository.lockCardByIdAndUserId(saved.getId(), owner.getId()))
+                .hasValueSatisfying(card -> assertThat(card.status()).isEqualTo(TaskStatus.DONE));
+        assertThat(taskRepository.lockCardsByIdInAndUserId(List.of(saved.getId()), owner.getId()))
+                .extracting(TaskCard::title).containsExactly("Bulk");
+
+        assertThat(taskRepository.countByStatus(owner.getId())).containsExactly(new StatusCount(TaskStatus.DONE, 1L));
+
+        assertThat(taskRepository.deleteByIdAndUserId(saved.getId(), stranger.getId())).isZero();
+        assertThat(taskRepository.deleteByIdAndUserId(saved.getId(), owner.getId())).isEqualTo(1);
+        assertThat(taskRepository.lockCardByIdAndUserId(saved.getId(), owner.getId())).isEmpty();
+    }
+
+    @Test
+    void taskRepositoryAllocatesIdsInBlocksAndRunsBulkBatchStatements() {
+        User owner = userRepository.save(User.builder()
+                .username("batchOwner")
+                .password("pw")
+                .email("batch@example.com")
+                .role("ROLE_USER")
+                .build());
+
+        Long nextBlockBefore = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generator WHERE name = 'task'", Long.class);
+
+        List<Task> saved = taskRepository.saveAllAndFlush(List.of(
+                Task.builder().title("Batch 1").status(TaskStatus.TO_DO).user(owner).build(),
+                Task.builder().title("Batch 2").status(TaskStatus.TO_DO).user(owner).build(),
+                Task.builder().title("Batch 3").status(TaskStatus.TO_DO).user(owner).build()));
+
+        assertThat(saved).extracting(Task::getId).allMatch(id -> id >= nextBlockBefore);
+        assertThat(saved.get(1).getId()).isEqualTo(saved.get(0).getId() + 1);
+
+        List<Long> ids = saved.stream().map(Task::getId).toList();
+        assertThat(taskRepository.updateStatusByIdInAndUserId(ids, owner.getId(), TaskStatus.IN_PROGRESS)).isEqualTo(3);
+        assertThat(taskRepository.countByStatus(owner.getId())).containsExactly(new StatusCount(TaskStatus.IN_PROGRESS, 3L));
+
+        assertThat(taskRepository.deleteByIdInAndUserId(ids.subList(0, 2), owner.getId())).isEqualTo(2);
+        assertThat(taskRepository.countByStatus(owner.getId())).containsExactly(new StatusCount(TaskStatus.IN_PROGRESS, 1L));
+    }
+
+    @Test
+    void taskRepositoryTaskTableHasAccessPathIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'TASK'", String.class);
+
+        assertThat(indexes).contains("IDX_TASK_USER_STATUS_ID", "IDX_TASK_USER_STATUS_DUE", "IDX_TASK_USER_ID");
+    }
+
+    @Test
+    void taskRepositoryStoresStatusAndPriorityAsCodes() {
+        User user = userRepository.save(User.builder()
+                .username("codesUser")
+                .password("pw")
+                .email("codes@example.com")
+                .role("ROLE_USER")
+                .build());
+        Task saved = taskRepository.saveAndFlush(Task.builder()
+                .title("Coded")
+                .status(TaskStatus.DONE)
+                .priority(TaskPriority.HIGH)
+                .user(user)
+                .build());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT status, priority FROM task WHERE id = ?", saved.getId());
+        assertThat(((Number) row.get("STATUS")).intValue()).isEqualTo(2);
+        assertThat(((Number) row.get("PRIORITY")).intValue()).isEqualTo(2);
+
+        entityManager.clear();
+        Task reloaded = taskRepository.findById(saved.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(reloaded.getPriority()).isEqualTo(TaskPriority.HIGH);
+    }
 }
@@ -1,12 +1,22 @@
 package com.springboot.taskmanager.repository;
 
 import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
 import com.springboot.taskmanager.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -16,11 +26,11 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-@DataJpaTest
+// statistics are off in application.properties, the cache tests read the region counts
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 class UserRepositoryTests {
 
-
     @Autowired
     @SuppressWarnings("unused")
     private UserRepository userRepository;
@@ -29,6 +39,14 @@ class UserRepositoryTests {
     @SuppressWarnings("unused")
     private TaskRepository taskRepository;
 
+    @Autowired
+    @SuppressWarnings("unused")
+    private TestEntityManager entityManager;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void userRepositoryFindByUsername() {
         User user = User.builder()
@@ -44,6 +62,79 @@ class UserRepositoryTests {
         assertThat(found.getUsername()).isEqualTo("findme");
     }
 
+    @Test
+    void userRepositoryReplacePasswordOnlyOverTheExpectedHash() {
+        userRepository.saveAndFlush(User.builder()
+                .username("rehashMe")
+                .password("$2a$04$old")
+                .role("ROLE_USER")
+                .build());
+
+        assertThat(userRepository.replacePassword("rehashMe", "$2a$04$changed", "{bcrypt}$2a$12$new")).isZero();
+        assertThat(userRepository.replacePassword("rehashMe", "$2a$04$old", "{bcrypt}$2a$12$new")).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(userRepository.findByUsername("rehashMe").getPassword()).isEqualTo("{bcrypt}$2a$12$new");
+    }
+
+    // the second-level cache only sees committed data, so these tests run without the test transaction
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void userRepositoryCachesUsers() {
+        Long userId = userRepository.save(User.builder()
+                .username("cachedUser")
+                .password("pw")
+                .role("ROLE_USER")
+                .build()).getId();
+        try {
+            CacheRegionStatistics users = statistics().getDomainDataRegionStatistics("user");
+            userRepository.findById(userId);
+            long hits = users.getHitCount();
+            long queries = statistics().getPrepareStatementCount();
+
+            assertThat(userRepository.findById(userId)).isPresent();
+            assertThat(users.getHitCount()).isEqualTo(hits + 1);
+            assertThat(statistics().getPrepareStatementCount()).isEqualTo(queries);
+        } finally {
+            userRepository.deleteById(userId);
+        }
+        assertThat(userRepository.findById(userId)).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void userRepositoryResolvesUsernamesThroughTheNaturalIdCache() {
+        Long userId = userRepository.save(User.builder()
+                .username("cachedLookup")
+                .password("$2a$04$old")
+                .role("ROLE_USER")
+                .build()).getId();
+        try {
+            CacheRegionStatistics lookups = statistics().getDomainDataRegionStatistics("user-by-username");
+            userRepository.findByUsername("cachedLookup");
+            long hits = lookups.getHitCount();
+            long misses = lookups.getMissCount();
+            long queries = statistics().getPrepareStatementCount();
+
+            assertThat(userRepository.findByUsername("cachedLookup").getId()).isEqualTo(userId);
+            assertThat(lookups.getHitCount()).isEqualTo(hits + 1);
+            assertThat(statistics().getPrepareStatementCount()).isEqualTo(queries);
+
+            // the bulk update evicts the natural ids along with the user region
+            userRepository.replacePassword("cachedLookup", "$2a$04$old", "{bcrypt}$2a$12$new");
+            assertThat(userRepository.findByUsername("cachedLookup").getPassword()).isEqualTo("{bcrypt}$2a$12$new");
+            assertThat(lookups.getMissCount()).isEqualTo(misses + 1);
+        } finally {
+            userRepository.deleteById(userId);
+        }
+        assertThat(userRepository.findByUsername("cachedLookup")).isNull();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
     @Test
     void userRepositoryFindByUsernameNotFound() {
         User found = userRepository.findByUsername("doesnotexist");
@@ -63,8 +154,8 @@ class UserRepositoryTests {
                 .title("Cascade Task")
                 .description("Created via cascade")
                 .dueDate(LocalDate.now())
-                .priority("MEDIUM")
-                .status("TO_DO")
+                .priority(TaskPriority.MEDIUM)
+                .status(TaskStatus.TO_DO)
                 .user(user)
                 .build();
 
@@ -75,7 +166,7 @@ class UserRepositoryTests {
         User savedUser = userRepository.save(user);
         assertThat(savedUser.getId()).isNotNull();
 
-        List<Task> tasks = taskRepository.findByUser(savedUser);
+        List<Task> tasks = taskRepository.findByUserId(savedUser.getId());
         assertThat(tasks).isNotEmpty();
         assertThat(tasks.getFirst().getTitle()).isEqualTo("Cascade Task");
     }
@@ -93,8 +184,8 @@ class UserRepositoryTests {
                 .title("TaskToCascadeDelete")
                 .description("cascade")
                 .dueDate(LocalDate.now())
-                .priority("MEDIUM")
-                .status("TO_DO")
+                .priority(TaskPriority.MEDIUM)
+                .status(TaskStatus.TO_DO)
                 .user(user)
                 .build();
 
@@ -103,7 +194,7 @@ class UserRepositoryTests {
         user.setTasks(list);
 
         User savedUser = userRepository.save(user);
-        Long taskId = taskRepository.findByUser(savedUser).getFirst().getId();
+        Long taskId = taskRepository.findByUserId(savedUser.getId()).getFirst().getId();
 
         userRepository.deleteById(savedUser.getId());
 
@@ -124,8 +215,8 @@ class UserRepositoryTests {
                 .title("OrphanTask")
                 .description("orphan")
                 .dueDate(LocalDate.now())
-                .priority("LOW")
-                .status("TO_DO")
+                .priority(TaskPriority.LOW)
+                .status(TaskStatus.TO_DO)
                 .user(user)
                 .build();
 
@@ -134,7 +225,7 @@ class UserRepositoryTests {
         user.setTasks(list);
 
         User savedUser = userRepository.save(user);
-        Long taskId = taskRepository.findByUser(savedUser).getFirst().getId();
+        Long taskId = taskRepository.findByUserId(savedUser.getId()).getFirst().getId();
 
         // remove task from user's list and save user
         savedUser.getTasks().clear();
@@ -164,6 +255,26 @@ class UserRepositoryTests {
         assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user2));
     }
 
+    @Test
+    void userRepositoryUsernamesDifferingOnlyInCaseCollide() {
+        userRepository.saveAndFlush(User.builder()
+                .username("CaseUser")
+                .password("pw")
+                .role("ROLE_USER")
+                .build());
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(User.builder()
+                        .username("caseuser")
+                        .password("pw")
+                        .role("ROLE_USER")
+                        .build()));
+        // what UserService.registerNewUser turns into UserAlreadyExistsException
+        assertThat(e.getCause()).isInstanceOfSatisfying(ConstraintViolationException.class,
+                violation -> assertThat(violation.getKind()).isEqualTo(ConstraintViolationException.ConstraintKind.UNIQUE));
+        assertThat(userRepository.findByUsername("caseuser")).isNull();
+    }
+
     @Test
     void userRepositoryHelpers() {
         long initial = userRepository.count();
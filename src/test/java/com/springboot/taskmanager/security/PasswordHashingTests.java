@@ -0,0 +1,111 @@
+package com.springboot.taskmanager.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingTests {
+
+    private static final BCryptPasswordEncoder BCRYPT = new BCryptPasswordEncoder(5);
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordRehasher passwordRehasher;
+
+    private static PasswordEncoder delegating() {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", BCRYPT));
+        encoder.setDefaultPasswordEncoderForMatches(BCRYPT);
+        return encoder;
+    }
+
+    private RehashingAuthenticationProvider provider() {
+        RehashingAuthenticationProvider provider = new RehashingAuthenticationProvider(userDetailsService, passwordRehasher);
+        provider.setPasswordEncoder(delegating());
+        return provider;
+    }
+
+    @Test
+    void bcryptCalibrationStaysWithinBounds() {
+        assertThat(BCryptCalibration.strengthFor(Duration.ZERO, 4, 12)).isEqualTo(4);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void loginWithLegacyHashSchedulesRehashAndSucceeds() {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(new AuthenticatedUser(1L, "alice", legacyHash, "ROLE_USER"));
+
+        assertThat(provider().authenticate(new UsernamePasswordAuthenticationToken("alice", "secret")).isAuthenticated())
+                .isTrue();
+
+        verify(passwordRehasher).rehashLater("alice", legacyHash, "secret");
+    }
+
+    @Test
+    void loginWithCurrentHashDoesNotRehash() {
+        String currentHash = delegating().encode("secret");
+        when(userDetailsService.loadUserByUsername("bob"))
+                .thenReturn(new AuthenticatedUser(2L, "bob", currentHash, "ROLE_USER"));
+
+        provider().authenticate(new UsernamePasswordAuthenticationToken("bob", "secret"));
+
+        Mockito.verifyNoInteractions(passwordRehasher);
+    }
+
+    @Test
+    void boundedPasswordEncoderQueuesHashesBeyondTheLimit() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(slow, 2);
+
+        CountDownLatch done = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            Thread.ofVirtual().start(() -> {
+                bounded.encode("pw");
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+}
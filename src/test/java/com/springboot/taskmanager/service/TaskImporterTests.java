@@ -0,0 +1,174 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.config.SchedulingConfig;
+import com.springboot.taskmanager.dto.TaskImportError;
+import com.springboot.taskmanager.dto.TaskImportProgress;
+import com.springboot.taskmanager.dto.TaskImportRow;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.event.TasksImportedEvent;
+import com.springboot.taskmanager.repository.TaskRepository;
+import com.springboot.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// every chunk commits on its own, so these tests run without the test transaction
+@DataJpaTest(properties = "taskmanager.import.chunk-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Import({TaskImporter.class, TaskStatistics.class, TaskReminderScheduler.class, TaskStatusBuffer.class, SchedulingConfig.class})
+@RecordApplicationEvents
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskImporterTests {
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TaskImporter taskImporter;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TaskRepository taskRepository;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private UserRepository userRepository;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TaskReminderScheduler taskReminderScheduler;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private ApplicationEvents events;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<TaskImportError> errors = new ArrayList<>();
+    private final List<TaskImportProgress> progress = new ArrayList<>();
+
+    @Test
+    void taskImporterWritesValidRowsInChunksAndReportsTheOthers() {
+        Long userId = createUser("importer");
+        try {
+            // counted once before, so the import has to add its chunks to the row
+            assertThat(taskStatistics.find(userId)).isEqualTo(new TaskStats(0, 0, 0, 0));
+            TaskImportProgress result = importRows(userId,
+                    new TaskImportRow(2, " Write docs ", "by Friday", "high", "2026-05-04", null),
+                    new TaskImportRow(3, "  ", null, null, null, null),
+                    new TaskImportRow(4, "Ship it", null, null, null, "DONE"),
+                    new TaskImportRow(5, "Bad date", null, null, "04.05.2026", null),
+                    new TaskImportRow(6, "Bad status", null, null, null, "LATER"),
+                    new TaskImportRow(7, "x".repeat(256), null, null, null, null),
+                    new TaskImportRow(8, "Review", null, "LOW", null, "in_progress"));
+
+            assertThat(result).isEqualTo(new TaskImportProgress(3, 4, true));
+            assertThat(progress).containsExactly(
+                    new TaskImportProgress(2, 1, false),
+                    new TaskImportProgress(3, 4, true));
+            assertThat(errors).containsExactly(
+                    new TaskImportError(3, "Task title cannot be empty."),
+                    new TaskImportError(5, "Invalid due date '04.05.2026', expected YYYY-MM-DD."),
+                    new TaskImportError(6, "Invalid task status 'LATER'."),
+                    new TaskImportError(7, "Task title is longer than 255 characters."));
+
+            // one event per committed chunk, not one per task
+            assertThat(events.stream(TasksImportedEvent.class).map(event -> event.tasks().size()))
+                    .containsExactly(2, 1);
+
+            List<Task> tasks = taskRepository.findByUserId(userId);
+            assertThat(tasks).extracting(Task::getTitle).containsExactlyInAnyOrder("Write docs", "Ship it", "Review");
+            Task docs = tasks.stream().filter(task -> task.getTitle().equals("Write docs")).findFirst().orElseThrow();
+            assertThat(docs.getDescription()).isEqualTo("by Friday");
+            assertThat(docs.getPriority()).isEqualTo(TaskPriority.HIGH);
+            assertThat(docs.getDueDate()).isEqualTo(LocalDate.of(2026, 5, 4));
+            assertThat(docs.getStatus()).isEqualTo(TaskStatus.TO_DO);
+            // "Write docs" is past its due date and still open
+            assertThat(taskStatistics.find(userId)).isEqualTo(new TaskStats(1, 1, 1, 1));
+            // and reminded of by the import, as its reserved id may sit behind the watermark
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT kind FROM task_notification WHERE task_id = ?", String.class, docs.getId()))
+                    .containsExactly("OVERDUE");
+
+            // imported ids come from the same generator as the entity's, so the next save does not collide
+            Task saved = taskRepository.save(Task.builder()
+                    .title("After the import")
+                    .user(userRepository.getReferenceById(userId))
+                    .build());
+            assertThat(saved.getId()).isNotIn(tasks.stream().map(Task::getId).toList());
+        } finally {
+            userRepository.deleteById(userId);
+        }
+    }
+
+    @Test
+    void taskImporterGoesOnAfterAFailedChunk() {
+        // no such user: every chunk fails on the foreign key and is rolled back on its own
+        TaskImportProgress result = importRows(-1L,
+                new TaskImportRow(2, "One", null, null, null, null),
+                new TaskImportRow(3, "Two", null, null, null, null),
+                new TaskImportRow(4, "Three", null, null, null, null));
+
+        assertThat(result).isEqualTo(new TaskImportProgress(0, 3, true));
+        assertThat(errors).extracting(TaskImportError::line).containsExactly(2L, 3L, 4L);
+        assertThat(errors).allSatisfy(error -> assertThat(error.error()).startsWith("Not saved"));
+        assertThat(events.stream(TasksImportedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void taskImporterReportsAChunkWhoseTransactionCannotBegin() {
+        PlatformTransactionManager exhausted = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(exhausted.getTransaction(Mockito.any())).thenThrow(new CannotCreateTransactionException(
+                "Could not open JPA EntityManager for transaction",
+                new SQLTransientConnectionException("Connection is not available, request timed out after 30000ms.")));
+        TaskImporter importer = new TaskImporter(jdbcTemplate, exhausted, Mockito.mock(ApplicationEventPublisher.class),
+                taskStatistics, taskReminderScheduler, 2);
+
+        TaskImportProgress result = importer.importTasks(createUser("importer-exhausted"), sink -> List.of(
+                new TaskImportRow(2, "One", null, null, null, null),
+                new TaskImportRow(3, "Two", null, null, null, null),
+                new TaskImportRow(4, "Three", null, null, null, null)).forEach(sink), errors::add, progress::add);
+
+        assertThat(result).isEqualTo(new TaskImportProgress(0, 3, true));
+        assertThat(errors).extracting(TaskImportError::line).containsExactly(2L, 3L, 4L);
+        assertThat(errors).allSatisfy(error -> assertThat(error.error()).endsWith("Connection is not available, request timed out after 30000ms."));
+    }
+
+    private TaskImportProgress importRows(Long userId, TaskImportRow... rows) {
+        return taskImporter.importTasks(userId, sink -> List.of(rows).forEach(sink), errors::add, progress::add);
+    }
+
+    private Long createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("pw")
+                .role("ROLE_USER")
+                .build()).getId();
+    }
+}
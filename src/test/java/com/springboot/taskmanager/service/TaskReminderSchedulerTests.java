@@ -0,0 +1,175 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.repository.TaskRepository;
+import com.springboot.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the workers write on threads of their own, so these tests run without the test transaction
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskReminderSchedulerTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 10);
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TaskRepository taskRepository;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private UserRepository userRepository;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private PlatformTransactionManager transactionManager;
+
+    private final List<TaskReminderScheduler> schedulers = new ArrayList<>();
+    private Long userId;
+
+    record Notification(Long taskId, String kind, LocalDate dueDate) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(User.builder()
+                .username("reminded")
+                .password("pw")
+                .role("ROLE_USER")
+                .build()).getId();
+        moveWatermarks(LocalDate.of(2030, 3, 1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (TaskReminderScheduler scheduler : schedulers) {
+            scheduler.close();
+        }
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void taskReminderSchedulerRemindsOfNewlyDueOpenTasksOnce() {
+        Long longOverdue = createTask("Long overdue", LocalDate.of(2030, 3, 5), TaskStatus.TO_DO);
+        Long overdue = createTask("Overdue", LocalDate.of(2030, 3, 9), TaskStatus.IN_PROGRESS);
+        createTask("Done in time", LocalDate.of(2030, 3, 9), TaskStatus.DONE);
+        Long dueToday = createTask("Due today", TODAY, TaskStatus.TO_DO);
+        Long dueTomorrow = createTask("Due tomorrow", LocalDate.of(2030, 3, 11), TaskStatus.TO_DO);
+        Long dueLater = createTask("Due later", LocalDate.of(2030, 3, 12), TaskStatus.TO_DO);
+        createTask("No due date", null, TaskStatus.TO_DO);
+
+        // pages of two on two workers; a second run on the same day finds nothing new
+        scheduler(TODAY).remind();
+        scheduler(TODAY).remind();
+
+        // due soon is only announced for tasks that are not overdue yet
+        assertThat(notifications()).containsExactlyInAnyOrder(
+                new Notification(longOverdue, "OVERDUE", LocalDate.of(2030, 3, 5)),
+                new Notification(overdue, "OVERDUE", LocalDate.of(2030, 3, 9)),
+                new Notification(dueToday, "DUE_SOON", TODAY),
+                new Notification(dueTomorrow, "DUE_SOON", LocalDate.of(2030, 3, 11)));
+
+        scheduler(TODAY.plusDays(1)).remind();
+
+        assertThat(notifications()).hasSize(6).contains(
+                new Notification(dueToday, "OVERDUE", TODAY),
+                new Notification(dueLater, "DUE_SOON", LocalDate.of(2030, 3, 12)));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT task_id FROM reminder_watermark WHERE kind = 'DUE_SOON'", Long.class)).isEqualTo(dueLater);
+    }
+
+    @Test
+    void taskReminderSchedulerDeliversAPageOnlyOnce() {
+        Long overdue = createTask("Overdue", LocalDate.of(2030, 3, 9), TaskStatus.TO_DO);
+        TaskReminderScheduler scheduler = scheduler(TODAY);
+        assertThat(scheduler.remind(TaskReminderScheduler.Kind.OVERDUE, null, TODAY.minusDays(1))).isEqualTo(1);
+
+        // as if the watermark write after the delivery had failed
+        moveWatermarks(LocalDate.of(2030, 3, 1));
+        assertThat(scheduler.remind(TaskReminderScheduler.Kind.OVERDUE, null, TODAY.minusDays(1))).isZero();
+
+        assertThat(notifications()).containsExactly(
+                new Notification(overdue, "OVERDUE", LocalDate.of(2030, 3, 9)));
+    }
+
+    @Test
+    void taskReminderSchedulerRemindsOfTasksWrittenBehindTheWatermark() {
+        Long overdue = createTask("Overdue", LocalDate.of(2030, 3, 9), TaskStatus.TO_DO);
+        Long dueTomorrow = createTask("Due tomorrow", LocalDate.of(2030, 3, 11), TaskStatus.TO_DO);
+        TaskReminderScheduler scheduler = scheduler(TODAY);
+        scheduler.remind();
+
+        // behind both watermarks now; the next scan starts after them and would never see these
+        Long backdated = createTask("Backdated", LocalDate.of(2030, 3, 2), TaskStatus.TO_DO);
+        Long dueToday = createTask("Due today", TODAY, TaskStatus.TO_DO);
+        Long done = createTask("Done", LocalDate.of(2030, 3, 2), TaskStatus.DONE);
+        Long dueLater = createTask("Due later", LocalDate.of(2030, 3, 20), TaskStatus.TO_DO);
+        scheduler.remindWritten(taskRepository.findAllById(List.of(backdated, dueToday, done, dueLater)).stream()
+                .map(TaskCard::of)
+                .toList());
+        scheduler.remind();
+
+        assertThat(notifications()).containsExactlyInAnyOrder(
+                new Notification(overdue, "OVERDUE", LocalDate.of(2030, 3, 9)),
+                new Notification(dueTomorrow, "DUE_SOON", LocalDate.of(2030, 3, 11)),
+                new Notification(backdated, "OVERDUE", LocalDate.of(2030, 3, 2)),
+                new Notification(dueToday, "DUE_SOON", TODAY));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT task_id FROM reminder_watermark WHERE kind = 'DUE_SOON'", Long.class)).isEqualTo(dueTomorrow);
+    }
+
+    private TaskReminderScheduler scheduler(LocalDate today) {
+        TaskReminderScheduler scheduler = new TaskReminderScheduler(true, 2, 2, 1, taskRepository,
+                new TaskStatusBuffer(false, taskRepository, Mockito.mock(TaskStatistics.class), transactionManager), jdbcTemplate, transactionManager,
+                Clock.fixed(today.atTime(9, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    private void moveWatermarks(LocalDate dueDate) {
+        jdbcTemplate.update("UPDATE reminder_watermark SET due_date = ?, task_id = 0", Date.valueOf(dueDate));
+    }
+
+    private Long createTask(String title, LocalDate dueDate, TaskStatus status) {
+        return taskRepository.save(Task.builder()
+                .title(title)
+                .dueDate(dueDate)
+                .status(status)
+                .user(userRepository.getReferenceById(userId))
+                .build()).getId();
+    }
+
+    private List<Notification> notifications() {
+        return jdbcTemplate.query("SELECT task_id, kind, due_date FROM task_notification WHERE user_id = ? ORDER BY id",
+                (resultSet, row) -> new Notification(resultSet.getLong("task_id"), resultSet.getString("kind"),
+                        resultSet.getDate("due_date").toLocalDate()),
+                userId);
+    }
+}
@@ -0,0 +1,135 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskSearchDocument;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskChangedEvent;
+import com.springboot.taskmanager.event.TasksImportedEvent;
+import com.springboot.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchIndexTests {
+
+    private static final Long USER_ID = 5L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(taskRepository, transactionManager, 3);
+    }
+
+    @Test
+    void taskSearchIndexMatchesEveryWordAsPrefixNewestFirst() {
+        create(1L, "Write release notes", "for the 2.0 Release");
+        create(2L, "Review pull request", "release branch");
+        create(3L, "Release party", null);
+        create(4L, "Buy groceries", "milk, eggs");
+
+        assertThat(ids(index.search(USER_ID, "release", 10))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(index.search(USER_ID, "REL not", 10))).containsExactly(1L);
+        // the description counts as much as the title
+        assertThat(ids(index.search(USER_ID, "eggs", 10))).containsExactly(4L);
+        assertThat(index.search(USER_ID, "release milk", 10)).isEmpty();
+        assertThat(index.search(USER_ID, " ,. ", 10)).isEmpty();
+    }
+
+    @Test
+    void taskSearchIndexCapsTheNumberOfResults() {
+        for (long id = 1; id <= 5; id++) {
+            create(id, "Task " + id, null);
+        }
+
+        assertThat(ids(index.search(USER_ID, "task", 2))).containsExactly(5L, 4L);
+        // taskmanager.search.max-results is 3 here
+        assertThat(ids(index.search(USER_ID, "task", 100))).containsExactly(5L, 4L, 3L);
+    }
+
+    @Test
+    void taskSearchIndexFollowsMovesAndDeletes() {
+        create(1L, "Deploy service", null);
+        create(2L, "Deploy database", null);
+
+        index.onTaskChanged(TaskChangedEvent.moved(USER_ID, card(1L, "Deploy service", TaskStatus.TO_DO), TaskStatus.DONE));
+        assertThat(index.search(USER_ID, "service", 10))
+                .extracting(TaskCard::status).containsExactly(TaskStatus.DONE);
+
+        index.onTaskChanged(TaskChangedEvent.deleted(USER_ID, card(2L, "Deploy database", TaskStatus.TO_DO)));
+        assertThat(ids(index.search(USER_ID, "deploy", 10))).containsExactly(1L);
+        assertThat(index.search(USER_ID, "database", 10)).isEmpty();
+        assertThat(index.size(USER_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void taskSearchIndexKeepsUsersApart() {
+        create(1L, "Secret plan", null);
+
+        assertThat(index.search(6L, "secret", 10)).isEmpty();
+    }
+
+    @Test
+    void taskSearchIndexRebuildsFromTheTaskTable() {
+        create(99L, "Stale task", null);
+        when(taskRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                new TaskSearchDocument(USER_ID, 1L, "Plan sprint", "backlog grooming", TaskPriority.LOW, null, TaskStatus.TO_DO),
+                new TaskSearchDocument(6L, 2L, "Plan holiday", null, null, null, TaskStatus.DONE)));
+
+        index.rebuild();
+
+        assertThat(ids(index.search(USER_ID, "plan", 10))).containsExactly(1L);
+        assertThat(ids(index.search(USER_ID, "groom", 10))).containsExactly(1L);
+        assertThat(ids(index.search(6L, "holiday", 10))).containsExactly(2L);
+        assertThat(index.search(USER_ID, "stale", 10)).isEmpty();
+    }
+
+    @Test
+    void taskSearchIndexAddsImportedChunks() {
+        create(1L, "Plan sprint", null);
+
+        index.onTasksImported(new TasksImportedEvent(USER_ID, List.of(
+                Task.builder().id(2L).title("Imported plan").description("from the old tracker").build(),
+                Task.builder().id(3L).title("Imported bug").status(TaskStatus.DONE).build())));
+
+        assertThat(ids(index.search(USER_ID, "plan", 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.search(USER_ID, "tracker", 10))).containsExactly(2L);
+        assertThat(index.search(USER_ID, "bug", 10)).extracting(TaskCard::status).containsExactly(TaskStatus.DONE);
+    }
+
+    private void create(Long id, String title, String description) {
+        index.onTaskChanged(TaskChangedEvent.created(USER_ID, Task.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .priority(TaskPriority.MEDIUM)
+                .status(TaskStatus.TO_DO)
+                .build()));
+    }
+
+    private static TaskCard card(Long id, String title, TaskStatus status) {
+        return new TaskCard(id, title, TaskPriority.MEDIUM, null, status);
+    }
+
+    private static List<Long> ids(List<TaskCard> cards) {
+        return cards.stream().map(TaskCard::id).toList();
+    }
+}
@@ -1,18 +1,36 @@
 package com.springboot.taskmanager.service;
 
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import com.springboot.taskmanager.dto.TaskStats;
 import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
 import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.event.TaskChangedEvent;
 import com.springboot.taskmanager.repository.TaskRepository;
+import com.springboot.taskmanager.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.verify;
@@ -24,9 +42,32 @@ class TaskServiceTests {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // a mock is off: every move writes through
+    @Mock
+    private TaskStatusBuffer statusBuffer;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private TaskReminderScheduler reminderScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TaskService taskService;
 
+    private static TaskCard card(Long id, String title, TaskStatus status) {
+        return new TaskCard(id, title, TaskPriority.MEDIUM, null, status);
+    }
+
     @Test
     void taskServiceFindAllUserTasks() {
         User user = User.builder()
@@ -50,56 +91,119 @@ class TaskServiceTests {
                 .user(user)
                 .build();
 
-        when(taskRepository.findByUser(Mockito.any(User.class))).thenReturn(List.of(task1, task2));
+        when(taskRepository.findByUserId(1L)).thenReturn(List.of(task1, task2));
 
-        List<Task> tasks = taskService.findAllUserTasks(user);
+        List<Task> tasks = taskService.findAllUserTasks(1L);
 
         assertEquals(2, tasks.size());
         assertEquals("Task 1", tasks.get(0).getTitle());
         assertEquals("Task 2", tasks.get(1).getTitle());
 
-        verify(taskRepository).findByUser(user);
+        verify(taskRepository).findByUserId(1L);
     }
 
+    @Test
+    void taskServiceExportTasksFeedsRowsAndClosesTheCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        TaskExportRow first = new TaskExportRow(1L, "A", null, TaskPriority.LOW, null, TaskStatus.TO_DO);
+        TaskExportRow second = new TaskExportRow(2L, "B", "text", null, null, TaskStatus.DONE);
+        when(taskRepository.streamExportRowsByUserId(5L))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        List<TaskExportRow> exported = new ArrayList<>();
+        taskService.exportTasks(5L, exported::add);
+
+        assertEquals(List.of(first, second), exported);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void taskServiceFindColumnPageWithMoreRows() {
+        TaskCard task1 = card(1L, "Task 1", TaskStatus.TO_DO);
+        TaskCard task2 = card(2L, "Task 2", TaskStatus.TO_DO);
+        TaskCard task3 = card(3L, "Task 3", TaskStatus.TO_DO);
+
+        when(taskRepository.findColumnPage(1L, TaskStatus.TO_DO, 0L, Limit.of(3))).thenReturn(List.of(task1, task2, task3));
+
+        TaskColumnPage page = taskService.findColumnPage(1L, TaskStatus.TO_DO, null, 2);
+
+        assertEquals(2, page.tasks().size());
+        assertEquals(2L, page.nextCursor());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void taskServiceFindColumnPageLastPage() {
+        TaskCard task = card(7L, "Last", TaskStatus.DONE);
+
+        when(taskRepository.findColumnPage(1L, TaskStatus.DONE, 6L, Limit.of(3))).thenReturn(List.of(task));
+
+        TaskColumnPage page = taskService.findColumnPage(1L, TaskStatus.DONE, 6L, 2);
+
+        assertEquals(1, page.tasks().size());
+        assertNull(page.nextCursor());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void taskServiceFindBoardGroupsColumnsAndCounts() {
+        TaskCard todo = card(1L, "Todo", TaskStatus.TO_DO);
+        TaskCard done = card(2L, "Done", TaskStatus.DONE);
+
+        when(taskRepository.findColumnPage(1L, TaskStatus.TO_DO, 0L, Limit.of(11))).thenReturn(List.of(todo));
+        when(taskRepository.findColumnPage(1L, TaskStatus.IN_PROGRESS, 0L, Limit.of(11))).thenReturn(List.of());
+        when(taskRepository.findColumnPage(1L, TaskStatus.DONE, 0L, Limit.of(11))).thenReturn(List.of(done));
+        // the counts come from the maintained statistics, not from counting the tasks
+        TaskBoard board = taskService.findBoard(1L, 10, new TaskStats(1, 0, 1, 0));
+
+        assertEquals(List.of(TaskStatus.TO_DO, TaskStatus.IN_PROGRESS, TaskStatus.DONE),
+                board.columns().stream().map(TaskColumnPage::status).toList());
+        assertEquals("Todo", board.column(TaskStatus.TO_DO).tasks().getFirst().title());
+        assertEquals(1L, board.count(TaskStatus.DONE));
+        assertEquals(0L, board.count(TaskStatus.IN_PROGRESS));
+        Mockito.verify(taskRepository, Mockito.never()).countByStatus(Mockito.any());
+        // the caller has read them already
+        Mockito.verifyNoInteractions(taskStatistics);
+    }
 
     @Test
     void taskServiceFindTaskByIdAndUser_Found() {
-        User user = User.builder().username("u").password("pw").email("e").role("ROLE_USER").build();
+        User user = User.builder().id(2L).username("u").password("pw").email("e").role("ROLE_USER").build();
         Task task = Task.builder().id(1L).title("T1").description("D").user(user).build();
 
-        when(taskRepository.findByIdAndUser(1L, user)).thenReturn(task);
+        when(taskRepository.findByIdAndUserId(1L, 2L)).thenReturn(task);
 
-        Optional<Task> result = taskService.findTaskByIdAndUser(1L, user);
+        Optional<Task> result = taskService.findTaskByIdAndUser(1L, 2L);
 
         assertTrue(result.isPresent());
         assertEquals("T1", result.get().getTitle());
-        verify(taskRepository).findByIdAndUser(1L, user);
+        verify(taskRepository).findByIdAndUserId(1L, 2L);
     }
 
     @Test
     void taskServiceFindTaskByIdAndUser_NotFound() {
-        User user = User.builder().username("u2").password("pw").email("e2").role("ROLE_USER").build();
-
-        when(taskRepository.findByIdAndUser(99L, user)).thenReturn(null);
+        when(taskRepository.findByIdAndUserId(99L, 3L)).thenReturn(null);
 
-        Optional<Task> result = taskService.findTaskByIdAndUser(99L, user);
+        Optional<Task> result = taskService.findTaskByIdAndUser(99L, 3L);
 
         assertFalse(result.isPresent());
-        verify(taskRepository).findByIdAndUser(99L, user);
+        verify(taskRepository).findByIdAndUserId(99L, 3L);
     }
 
     @Test
     void taskServiceSaveTask_SetsUserAndSaves() {
-        User user = User.builder().username("saveUser").password("pw").email("save@example.com").role("ROLE_USER").build();
+        User user = User.builder().id(4L).username("saveUser").password("pw").email("save@example.com").role("ROLE_USER").build();
         Task task = Task.builder().title("New Task").description("New Desc").build();
 
+        when(userRepository.getReferenceById(4L)).thenReturn(user);
+
         when(taskRepository.save(Mockito.any(Task.class))).thenAnswer(invocation -> {
             Task t = invocation.getArgument(0);
             t.setId(5L); // simulate save assigning an ID
             return t;
         });
 
-        Task saved = taskService.saveTask(task, user);
+        Task saved = taskService.saveTask(task, 4L);
 
         // capture saved argument to ensure user was set before save
         ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
@@ -109,32 +213,195 @@ class TaskServiceTests {
         assertEquals(user, captured.getUser());
         assertEquals(user, saved.getUser());
         assertEquals(5L, saved.getId());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(4L, saved));
+        verify(taskStatistics).added(4L, List.of(TaskCard.of(saved)));
+        verify(reminderScheduler).remindWritten(List.of(TaskCard.of(saved)));
     }
 
     @Test
-    void taskServiceDeleteTaskByIdAndUser_Success() {
-        User user = User.builder().username("delUser").password("pw").email("del@example.com").role("ROLE_USER").build();
-        Task task = Task.builder().id(10L).title("ToDelete").description("D").user(user).build();
+    void taskServiceSaveTasks_AssignsOwnerToEveryTask() {
+        User user = User.builder().id(4L).username("batchUser").password("pw").role("ROLE_USER").build();
+        List<Task> tasks = List.of(Task.builder().title("A").build(), Task.builder().title("B").build());
+
+        when(userRepository.getReferenceById(4L)).thenReturn(user);
+        when(taskRepository.saveAll(tasks)).thenReturn(tasks);
+
+        List<Task> saved = taskService.saveTasks(tasks, 4L);
+
+        assertEquals(2, saved.size());
+        assertTrue(saved.stream().allMatch(task -> task.getUser() == user));
+        verify(userRepository).getReferenceById(4L);
+    }
+
+    @Test
+    void taskServiceUpdateTaskStatuses_PublishesOneEventPerMovedCard() {
+        when(taskRepository.lockCardsByIdInAndUserId(List.of(1L, 2L), 5L))
+                .thenReturn(List.of(card(1L, "A", TaskStatus.TO_DO), card(2L, "B", TaskStatus.DONE)));
+        when(taskRepository.updateStatusByIdInAndUserId(List.of(1L, 2L), 5L, TaskStatus.DONE)).thenReturn(2);
+
+        assertEquals(2, taskService.updateTaskStatuses(List.of(1L, 2L), 5L, TaskStatus.DONE));
+
+        // task 2 was already done, so only task 1 changes column on the board
+        verify(eventPublisher).publishEvent(
+                new TaskChangedEvent(5L, TaskChangedEvent.Type.MOVED, card(1L, "A", TaskStatus.DONE), TaskStatus.TO_DO, null));
+        Mockito.verifyNoMoreInteractions(eventPublisher);
+        verify(taskStatistics).moved(5L, List.of(card(1L, "A", TaskStatus.TO_DO)), TaskStatus.DONE);
+    }
+
+    @Test
+    void taskServiceDeleteTasks() {
+        when(taskRepository.lockCardsByIdInAndUserId(List.of(1L, 2L), 5L)).thenReturn(List.of(card(1L, "A", TaskStatus.DONE)));
+        when(taskRepository.deleteByIdInAndUserId(List.of(1L, 2L), 5L)).thenReturn(1);
+
+        assertEquals(1, taskService.deleteTasks(List.of(1L, 2L), 5L));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(5L, card(1L, "A", TaskStatus.DONE)));
+        verify(taskStatistics).removed(5L, List.of(card(1L, "A", TaskStatus.DONE)));
+    }
+
+    @Test
+    void taskServiceUpdateTaskStatus_ReturnsTitle() {
+        when(taskRepository.lockCardByIdAndUserId(8L, 5L)).thenReturn(Optional.of(card(8L, "Moved", TaskStatus.TO_DO)));
+        when(taskRepository.updateStatusByIdAndUserId(8L, 5L, TaskStatus.DONE)).thenReturn(1);
+
+        Optional<String> title = taskService.updateTaskStatus(8L, 5L, TaskStatus.DONE);
+
+        assertEquals(Optional.of("Moved"), title);
+        Mockito.verify(taskRepository, Mockito.never()).save(Mockito.any());
+        verify(eventPublisher).publishEvent(
+                new TaskChangedEvent(5L, TaskChangedEvent.Type.MOVED, card(8L, "Moved", TaskStatus.DONE), TaskStatus.TO_DO, null));
+        verify(taskStatistics).moved(5L, List.of(card(8L, "Moved", TaskStatus.TO_DO)), TaskStatus.DONE);
+    }
+
+    @Test
+    void taskServiceUpdateTaskStatus_ToItsOwnColumnOnlyReadsTheCard() {
+        when(taskRepository.lockCardByIdAndUserId(8L, 5L)).thenReturn(Optional.of(card(8L, "Stays", TaskStatus.DONE)));
+
+        assertEquals(Optional.of("Stays"), taskService.updateTaskStatus(8L, 5L, TaskStatus.DONE));
+
+        Mockito.verify(taskRepository, Mockito.never()).updateStatusByIdAndUserId(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(taskStatistics, eventPublisher);
+    }
 
-        when(taskRepository.findByIdAndUser(10L, user)).thenReturn(task);
+    @Test
+    void taskServiceUpdateTaskStatus_BuffersTheMoveWhenWriteBehindIsOn() {
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        when(taskRepository.findCardByIdAndUserId(8L, 5L)).thenReturn(Optional.of(card(8L, "Moved", TaskStatus.TO_DO)));
+
+        Optional<String> title = taskService.updateTaskStatus(8L, 5L, TaskStatus.DONE);
+
+        assertEquals(Optional.of("Moved"), title);
+        verify(statusBuffer).put(5L, card(8L, "Moved", TaskStatus.TO_DO), TaskStatus.DONE);
+        // no row lock, no write and no transaction; the buffer changes the statistics when it writes the move
+        Mockito.verifyNoMoreInteractions(taskRepository);
+        Mockito.verifyNoInteractions(taskStatistics, transactionManager);
+        verify(eventPublisher).publishEvent(
+                new TaskChangedEvent(5L, TaskChangedEvent.Type.MOVED, card(8L, "Moved", TaskStatus.DONE), TaskStatus.TO_DO, null));
+    }
 
-        boolean deleted = taskService.deleteTaskByIdAndUser(10L, user);
+    @Test
+    void taskServiceUpdateTaskStatus_MovesABufferedCardWithoutReadingIt() {
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        // moved to In Progress since the last flush, the database still says To Do
+        when(statusBuffer.pending(5L, 8L)).thenReturn(Optional.of(
+                new TaskStatusBuffer.Move(card(8L, "Moved", TaskStatus.TO_DO), TaskStatus.IN_PROGRESS)));
+
+        Optional<String> title = taskService.updateTaskStatus(8L, 5L, TaskStatus.DONE);
+
+        assertEquals(Optional.of("Moved"), title);
+        verify(statusBuffer).put(5L, card(8L, "Moved", TaskStatus.TO_DO), TaskStatus.DONE);
+        Mockito.verifyNoInteractions(taskRepository, taskStatistics, transactionManager);
+        verify(eventPublisher).publishEvent(
+                new TaskChangedEvent(5L, TaskChangedEvent.Type.MOVED, card(8L, "Moved", TaskStatus.DONE), TaskStatus.IN_PROGRESS, null));
+    }
+
+    @Test
+    void taskServiceBoardShowsTheBufferedMovesWithoutAFlush() {
+        when(statusBuffer.pendingMoves(5L)).thenReturn(List.of(
+                new TaskStatusBuffer.Move(card(2L, "Left", TaskStatus.DONE), TaskStatus.TO_DO),
+                new TaskStatusBuffer.Move(card(4L, "Arrived", TaskStatus.TO_DO), TaskStatus.DONE),
+                new TaskStatusBuffer.Move(card(9L, "Later", TaskStatus.TO_DO), TaskStatus.DONE)));
+        // one row more than the page, and one per buffered move
+        when(taskRepository.findColumnPage(5L, TaskStatus.DONE, 0L, Limit.of(6)))
+                .thenReturn(List.of(card(1L, "A", TaskStatus.DONE), card(2L, "Left", TaskStatus.DONE),
+                        card(3L, "B", TaskStatus.DONE), card(5L, "C", TaskStatus.DONE)));
+
+        TaskBoard board = taskService.findBoard(5L, 2, EnumSet.of(TaskStatus.DONE), new TaskStats(0, 0, 4, 0));
+
+        // task 2 has left the column, task 4 has come in
+        TaskColumnPage done = board.columnsByStatus().get(TaskStatus.DONE);
+        assertEquals(List.of(card(1L, "A", TaskStatus.DONE), card(3L, "B", TaskStatus.DONE)), done.tasks());
+        assertEquals(3L, done.nextCursor());
+
+        when(taskRepository.findColumnPage(5L, TaskStatus.DONE, 3L, Limit.of(6))).thenReturn(List.of(card(5L, "C", TaskStatus.DONE)));
+        TaskColumnPage next = taskService.findColumnPage(5L, TaskStatus.DONE, 3L, 2);
+        assertEquals(List.of(card(4L, "Arrived", TaskStatus.DONE), card(5L, "C", TaskStatus.DONE)), next.tasks());
+        assertEquals(5L, next.nextCursor());
+        Mockito.verify(statusBuffer, Mockito.never()).flush(Mockito.any());
+    }
+
+    @Test
+    void taskServiceStatsCountTheBufferedMoves() {
+        List<TaskStatusBuffer.Move> moves = List.of(new TaskStatusBuffer.Move(card(4L, "Arrived", TaskStatus.TO_DO), TaskStatus.DONE));
+        when(statusBuffer.pendingMoves(5L)).thenReturn(moves);
+        when(taskStatistics.find(5L)).thenReturn(new TaskStats(3, 0, 1, 0));
+        when(taskStatistics.withMoves(new TaskStats(3, 0, 1, 0), moves)).thenReturn(new TaskStats(2, 0, 2, 0));
+
+        assertEquals(new TaskStats(2, 0, 2, 0), taskService.findStats(5L));
+        Mockito.verify(statusBuffer, Mockito.never()).flush(Mockito.any());
+    }
+
+    @Test
+    void taskServiceDeleteTasksDropsTheBufferedMovesOnceDeleted() {
+        when(taskRepository.lockCardsByIdInAndUserId(List.of(3L, 4L), 5L)).thenReturn(List.of(card(3L, "Gone", TaskStatus.TO_DO)));
+        when(taskRepository.deleteByIdInAndUserId(List.of(3L, 4L), 5L)).thenReturn(1);
+
+        assertEquals(1, taskService.deleteTasks(List.of(3L, 4L), 5L));
+
+        // task 4 is someone else's, so a move of it stays where it is
+        InOrder inOrder = Mockito.inOrder(statusBuffer, transactionManager, taskRepository);
+        inOrder.verify(transactionManager).getTransaction(Mockito.argThat(definition -> !definition.isReadOnly()));
+        inOrder.verify(taskRepository).lockCardsByIdInAndUserId(List.of(3L, 4L), 5L);
+        inOrder.verify(transactionManager).commit(Mockito.any());
+        inOrder.verify(statusBuffer).discard(5L, List.of(3L));
+        verify(taskStatistics).removed(5L, List.of(card(3L, "Gone", TaskStatus.TO_DO)));
+        Mockito.verify(statusBuffer, Mockito.never()).flush(Mockito.any());
+    }
+
+    @Test
+    void taskServiceUpdateTaskStatus_NotFound() {
+        when(taskRepository.lockCardByIdAndUserId(9L, 5L)).thenReturn(Optional.empty());
+
+        Optional<String> title = taskService.updateTaskStatus(9L, 5L, TaskStatus.DONE);
+
+        assertFalse(title.isPresent());
+        Mockito.verify(taskRepository, Mockito.never()).updateStatusByIdAndUserId(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void taskServiceDeleteTaskByIdAndUser_Success() {
+        when(taskRepository.lockCardByIdAndUserId(10L, 5L)).thenReturn(Optional.of(card(10L, "Gone", TaskStatus.IN_PROGRESS)));
+        when(taskRepository.deleteByIdAndUserId(10L, 5L)).thenReturn(1);
+
+        boolean deleted = taskService.deleteTaskByIdAndUser(10L, 5L);
 
         assertTrue(deleted);
-        verify(taskRepository).findByIdAndUser(10L, user);
-        verify(taskRepository).delete(task);
+        verify(taskRepository).deleteByIdAndUserId(10L, 5L);
+        Mockito.verify(taskRepository, Mockito.never()).findByIdAndUserId(Mockito.any(), Mockito.any());
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(
+                5L, TaskChangedEvent.Type.DELETED, card(10L, "Gone", TaskStatus.IN_PROGRESS), TaskStatus.IN_PROGRESS, null));
+        verify(taskStatistics).removed(5L, List.of(card(10L, "Gone", TaskStatus.IN_PROGRESS)));
     }
 
     @Test
     void taskServiceDeleteTaskByIdAndUser_NotFound() {
-        User user = User.builder().username("delUser2").password("pw").email("del2@example.com").role("ROLE_USER").build();
-
-        when(taskRepository.findByIdAndUser(11L, user)).thenReturn(null);
+        when(taskRepository.lockCardByIdAndUserId(11L, 6L)).thenReturn(Optional.empty());
 
-        boolean deleted = taskService.deleteTaskByIdAndUser(11L, user);
+        boolean deleted = taskService.deleteTaskByIdAndUser(11L, 6L);
 
         assertFalse(deleted);
-        verify(taskRepository).findByIdAndUser(11L, user);
+        Mockito.verify(taskRepository, Mockito.never()).deleteByIdAndUserId(Mockito.any(), Mockito.any());
         Mockito.verify(taskRepository, Mockito.never()).delete(Mockito.any());
+        Mockito.verifyNoInteractions(eventPublisher);
     }
 }
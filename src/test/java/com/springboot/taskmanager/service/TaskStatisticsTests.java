@@ -0,0 +1,160 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.dto.TaskStats;
+import com.springboot.taskmanager.entity.Task;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.entity.User;
+import com.springboot.taskmanager.event.TaskStatsRepairedEvent;
+import com.springboot.taskmanager.repository.TaskRepository;
+import com.springboot.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// counts are created in transactions of their own, so these tests run without the test transaction
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskStatisticsTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 10);
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private TaskRepository taskRepository;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private UserRepository userRepository;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @SuppressWarnings("unused")
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new ArrayList<>();
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(User.builder()
+                .username("counted")
+                .password("pw")
+                .role("ROLE_USER")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void taskStatisticsCountOnceThenFollowTheWrites() {
+        createTask(LocalDate.of(2030, 3, 9), TaskStatus.TO_DO);
+        createTask(LocalDate.of(2030, 3, 9), TaskStatus.DONE);
+        createTask(TODAY, TaskStatus.IN_PROGRESS);
+        TaskStatistics statistics = statistics(TODAY);
+
+        assertThat(statistics.find(userId)).isEqualTo(new TaskStats(1, 1, 1, 1));
+
+        // as TaskService does: the task write and the count change in one transaction
+        TaskCard late = TaskCard.of(createTask(LocalDate.of(2030, 3, 1), TaskStatus.TO_DO));
+        inTransaction(() -> statistics.added(userId, List.of(late)));
+        assertThat(statistics.find(userId)).isEqualTo(new TaskStats(2, 1, 1, 2));
+
+        inTransaction(() -> statistics.moved(userId, List.of(late), TaskStatus.DONE));
+        TaskStats stats = statistics.find(userId);
+        assertThat(stats).isEqualTo(new TaskStats(1, 1, 2, 1));
+        assertThat(stats.completionRate()).isEqualTo(50);
+
+        inTransaction(() -> statistics.removed(userId, List.of(late.withStatus(TaskStatus.DONE))));
+        assertThat(statistics.find(userId)).isEqualTo(new TaskStats(1, 1, 1, 1));
+    }
+
+    @Test
+    void taskStatisticsCountTheOverdueTasksAgainOnANewDay() {
+        createTask(TODAY, TaskStatus.IN_PROGRESS);
+        assertThat(statistics(TODAY).find(userId).overdue()).isZero();
+
+        TaskStatistics tomorrow = statistics(TODAY.plusDays(1));
+        assertThat(tomorrow.find(userId)).isEqualTo(new TaskStats(0, 1, 0, 1));
+
+        // a change counted for yesterday, e.g. a move buffered over midnight, leaves the
+        // overdue count as it is and to the reconciliation
+        TaskCard card = TaskCard.of(createTask(TODAY.minusDays(5), TaskStatus.TO_DO));
+        inTransaction(() -> statistics(TODAY).added(userId, List.of(card)));
+        assertThat(tomorrow.find(userId)).isEqualTo(new TaskStats(1, 1, 0, 1));
+        assertThat(tomorrow.reconcile()).isEqualTo(1);
+        assertThat(tomorrow.find(userId)).isEqualTo(new TaskStats(1, 1, 0, 2));
+    }
+
+    @Test
+    void taskStatisticsReconciliationRepairsDrift() {
+        createTask(null, TaskStatus.TO_DO);
+        createTask(null, TaskStatus.DONE);
+        TaskStatistics statistics = statistics(TODAY);
+        statistics.find(userId);
+        assertThat(statistics.reconcile()).isZero();
+
+        // a task written without its count
+        createTask(null, TaskStatus.DONE);
+        assertThat(statistics.find(userId)).isEqualTo(new TaskStats(1, 0, 1, 0));
+
+        assertThat(statistics.reconcile()).isEqualTo(1);
+        assertThat(statistics.find(userId)).isEqualTo(new TaskStats(1, 0, 2, 0));
+        // the dashboard versions move for the repaired column only
+        assertThat(events).containsExactly(new TaskStatsRepairedEvent(userId, Set.of(TaskStatus.DONE)));
+    }
+
+    @Test
+    void taskStatisticsCountBufferedMovesAsWritten() {
+        TaskCard overdue = new TaskCard(1L, "Overdue", null, TODAY.minusDays(1), TaskStatus.TO_DO);
+        TaskCard open = new TaskCard(2L, "Open", null, null, TaskStatus.IN_PROGRESS);
+
+        // finishing an overdue task takes it off the overdue count too
+        assertThat(statistics(TODAY).withMoves(new TaskStats(1, 1, 0, 1), List.of(
+                new TaskStatusBuffer.Move(overdue, TaskStatus.DONE),
+                new TaskStatusBuffer.Move(open, TaskStatus.TO_DO))))
+                .isEqualTo(new TaskStats(1, 0, 1, 0));
+    }
+
+    private TaskStatistics statistics(LocalDate today) {
+        return new TaskStatistics(taskRepository, jdbcTemplate, transactionManager, events::add,
+                Clock.fixed(today.atTime(9, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 1);
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private Task createTask(LocalDate dueDate, TaskStatus status) {
+        return taskRepository.save(Task.builder()
+                .title("Counted")
+                .dueDate(dueDate)
+                .status(status)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+    }
+}
@@ -0,0 +1,165 @@
+package com.springboot.taskmanager.service;
+
+import com.springboot.taskmanager.dto.TaskCard;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatusBufferTests {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskStatusBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new TaskStatusBuffer(true, taskRepository, taskStatistics, transactionManager);
+    }
+
+    private static TaskCard card(Long id, TaskStatus status) {
+        return new TaskCard(id, "Task " + id, null, null, status);
+    }
+
+    @Test
+    void taskStatusBufferKeepsTheLastMoveOfEachTask() {
+        buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.DONE);
+        buffer.put(5L, card(1L, TaskStatus.DONE), TaskStatus.IN_PROGRESS);
+        buffer.put(5L, card(1L, TaskStatus.IN_PROGRESS), TaskStatus.TO_DO);
+        buffer.put(5L, card(2L, TaskStatus.TO_DO), TaskStatus.DONE);
+        buffer.put(5L, card(3L, TaskStatus.IN_PROGRESS), TaskStatus.DONE);
+        assertThat(buffer.pending(5L, 1L).map(TaskStatusBuffer.Move::status)).contains(TaskStatus.TO_DO);
+        // still counted from where the first move took it
+        assertThat(buffer.pendingMoves(5L)).hasSize(3)
+                .contains(new TaskStatusBuffer.Move(card(1L, TaskStatus.TO_DO), TaskStatus.TO_DO));
+        when(taskRepository.lockCardsByIdInAndUserId(argThat(ids -> ids.size() == 3), eq(5L))).thenReturn(List.of(
+                card(1L, TaskStatus.TO_DO), card(2L, TaskStatus.TO_DO), card(3L, TaskStatus.IN_PROGRESS)));
+
+        buffer.flushAll();
+
+        // the rows are locked first, then one bulk UPDATE per target column
+        verify(taskRepository).lockCardsByIdInAndUserId(any(), eq(5L));
+        verify(taskRepository).updateStatusByIdInAndUserId(List.of(1L), 5L, TaskStatus.TO_DO);
+        verify(taskRepository).updateStatusByIdInAndUserId(
+                argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))),
+                eq(5L), eq(TaskStatus.DONE));
+        verifyNoMoreInteractions(taskRepository);
+        // task 1 ended where it started, so the statistics only see tasks 2 and 3 move
+        verify(taskStatistics).moved(5L, List.of(), TaskStatus.TO_DO);
+        verify(taskStatistics).moved(eq(5L),
+                argThat(cards -> cards.size() == 2 && cards.containsAll(
+                        List.of(card(2L, TaskStatus.TO_DO), card(3L, TaskStatus.IN_PROGRESS)))),
+                eq(TaskStatus.DONE));
+        assertThat(buffer.pendingCount(5L)).isZero();
+        assertThat(buffer.pending(5L, 1L)).isEmpty();
+    }
+
+    @Test
+    void taskStatusBufferCountsAMoveDuringTheFlushFromTheWrittenStatus() {
+        buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.IN_PROGRESS);
+        when(taskRepository.lockCardsByIdInAndUserId(Set.of(1L), 5L))
+                .thenReturn(List.of(card(1L, TaskStatus.TO_DO)), List.of(card(1L, TaskStatus.IN_PROGRESS)));
+        // the card is moved on while its first move is being written
+        when(taskRepository.updateStatusByIdInAndUserId(List.of(1L), 5L, TaskStatus.IN_PROGRESS)).thenAnswer(invocation -> {
+            buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.DONE);
+            return 1;
+        });
+
+        buffer.flushAll();
+        assertThat(buffer.pending(5L, 1L).map(TaskStatusBuffer.Move::status)).contains(TaskStatus.DONE);
+        buffer.flushAll();
+
+        verify(taskStatistics).moved(5L, List.of(card(1L, TaskStatus.TO_DO)), TaskStatus.IN_PROGRESS);
+        verify(taskStatistics).moved(5L, List.of(card(1L, TaskStatus.IN_PROGRESS)), TaskStatus.DONE);
+        assertThat(buffer.pendingCount(5L)).isZero();
+    }
+
+    @Test
+    void taskStatusBufferFlushesOneUserOnly() {
+        buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.DONE);
+        buffer.put(6L, card(2L, TaskStatus.TO_DO), TaskStatus.DONE);
+        when(taskRepository.lockCardsByIdInAndUserId(Set.of(1L), 5L)).thenReturn(List.of(card(1L, TaskStatus.TO_DO)));
+
+        buffer.flush(5L);
+        buffer.flush(7L);
+
+        verify(taskRepository).lockCardsByIdInAndUserId(Set.of(1L), 5L);
+        verify(taskRepository).updateStatusByIdInAndUserId(List.of(1L), 5L, TaskStatus.DONE);
+        verifyNoMoreInteractions(taskRepository);
+        assertThat(buffer.pendingCount(5L)).isZero();
+        assertThat(buffer.pending(6L, 2L).map(TaskStatusBuffer.Move::status)).contains(TaskStatus.DONE);
+    }
+
+    @Test
+    void taskStatusBufferKeepsTheMovesWhenTheWriteFails() {
+        buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.DONE);
+        when(taskRepository.lockCardsByIdInAndUserId(Set.of(1L), 5L)).thenReturn(List.of(card(1L, TaskStatus.TO_DO)));
+        when(taskRepository.updateStatusByIdInAndUserId(any(), any(), any()))
+                .thenThrow(new QueryTimeoutException("database is away"));
+
+        assertThatThrownBy(buffer::flushAll).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(buffer.pending(5L, 1L).map(TaskStatusBuffer.Move::status)).isEqualTo(Optional.of(TaskStatus.DONE));
+    }
+
+    @Test
+    void taskStatusBufferSkipsTasksDeletedSinceTheirMove() {
+        buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.DONE);
+        buffer.put(5L, card(2L, TaskStatus.TO_DO), TaskStatus.DONE);
+        // task 2 was deleted before the flush locked the rows
+        when(taskRepository.lockCardsByIdInAndUserId(any(), eq(5L))).thenReturn(List.of(card(1L, TaskStatus.TO_DO)));
+
+        buffer.flushAll();
+
+        verify(taskRepository).updateStatusByIdInAndUserId(List.of(1L), 5L, TaskStatus.DONE);
+        verify(taskStatistics).moved(5L, List.of(card(1L, TaskStatus.TO_DO)), TaskStatus.DONE);
+        verifyNoMoreInteractions(taskStatistics);
+        assertThat(buffer.pendingCount(5L)).isZero();
+    }
+
+    @Test
+    void taskStatusBufferDropsTheMovesOfDeletedTasks() {
+        buffer.put(5L, card(1L, TaskStatus.TO_DO), TaskStatus.DONE);
+
+        buffer.discard(5L, List.of(1L, 9L));
+        buffer.flushAll();
+
+        assertThat(buffer.pendingCount(5L)).isZero();
+        verifyNoInteractions(taskRepository, taskStatistics, transactionManager);
+    }
+
+    @Test
+    void taskStatusBufferDoesNothingWithoutMoves() {
+        buffer.flushAll();
+        buffer.flush(5L);
+
+        verifyNoInteractions(taskRepository, taskStatistics, transactionManager);
+    }
+}
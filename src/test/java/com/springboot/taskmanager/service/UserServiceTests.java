@@ -5,6 +5,8 @@ import com.springboot.taskmanager.entity.User;
 import com.springboot.taskmanager.exceptions.PasswordsDoNotMatchException;
 import com.springboot.taskmanager.exceptions.UserAlreadyExistsException;
 import com.springboot.taskmanager.repository.UserRepository;
+import com.springboot.taskmanager.security.AuthenticatedUser;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -12,9 +14,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -35,6 +41,7 @@ class UserServiceTests {
     @Test
     void userServiceLoadUserByUsername() {
         User user = User.builder()
+                .id(7L)
                 .username("loadUser")
                 .password("pw")
                 .email("load@example.com")
@@ -50,6 +57,21 @@ class UserServiceTests {
         assertEquals(user.getPassword(), userDetails.getPassword());
         assertTrue(userDetails.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals(user.getRole())));
+        assertEquals(7L, ((AuthenticatedUser) userDetails).getId());
+    }
+
+    @Test
+    void userServiceFindUserByUsername() {
+        User user = User.builder()
+                .username("foundUser")
+                .password("pw")
+                .role("ROLE_USER")
+                .build();
+
+        when(userRepository.findByUsername("foundUser")).thenReturn(user);
+
+        assertEquals(user, userService.findUserByUsername("foundUser"));
+        assertThatThrownBy(() -> userService.findUserByUsername("missingUser")).isInstanceOf(UsernameNotFoundException.class);
     }
 
     @Test
@@ -61,18 +83,17 @@ class UserServiceTests {
                 .email("registeredDto@example.com")
                 .build();
 
-        // repository should report username not existing
-        when(userRepository.findByUsername(registrationDto.getUsername())).thenReturn(null);
         // password encoder returns encoded value
         when(passwordEncoder.encode(registrationDto.getPassword())).thenReturn("encodedPw");
         // return the passed entity from save
-        when(userRepository.save(Mockito.any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.saveAndFlush(Mockito.any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         User registeredNewUser = userService.registerNewUser(registrationDto);
 
-        // capture what was saved
+        // capture what was saved, without asking first whether the username is taken
         ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(captor.capture());
+        verify(userRepository).saveAndFlush(captor.capture());
+        verify(userRepository, never()).findByUsername(anyString());
         User savedUser = captor.getValue();
 
         // verify saved fields and returned object
@@ -94,16 +115,32 @@ class UserServiceTests {
                 .email("registeredDto@example.com")
                 .build();
         //when
-        // repository should report username not existing
-        when(userRepository.findByUsername(registrationDto.getUsername())).thenReturn(new User());
+        // the insert hits the unique index on username
+        when(passwordEncoder.encode(registrationDto.getPassword())).thenReturn("encodedPw");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(),
+                        ConstraintViolationException.ConstraintKind.UNIQUE, "UK_USERS_USERNAME_CI")));
 
 
         //then
         assertThatThrownBy(() -> userService.registerNewUser(registrationDto))
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessageContaining("Username already exists.");
+    }
 
-        verify(userRepository, never()).save(any());
+    @Test
+    void userServiceRegisterNewUserRethrowsOtherIntegrityViolations() {
+        UserRegistrationDto registrationDto = UserRegistrationDto.builder()
+                .username("userDtoToRegister")
+                .password("pw")
+                .confirmPassword("pw")
+                .build();
+        DataIntegrityViolationException tooLong = new DataIntegrityViolationException("value too long");
+
+        when(passwordEncoder.encode(registrationDto.getPassword())).thenReturn("encodedPw");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(tooLong);
+
+        assertThatThrownBy(() -> userService.registerNewUser(registrationDto)).isSameAs(tooLong);
     }
 
     @Test
@@ -115,17 +152,12 @@ class UserServiceTests {
                 .confirmPassword("differentPw")
                 .email("registeredDto@example.com")
                 .build();
-        //when
-        // first condition must pass
-        when(userRepository.findByUsername(anyString())).thenReturn(null);
-
-
         //then
         assertThatThrownBy(() -> userService.registerNewUser(registrationDto))
                 .isInstanceOf(PasswordsDoNotMatchException.class)
                 .hasMessageContaining("Passwords do not match!");
 
         verify(passwordEncoder, never()).encode(anyString());
-        verify(userRepository, never()).save(any());
+        verifyNoInteractions(userRepository);
     }
 }
@@ -0,0 +1,118 @@
+package com.springboot.taskmanager.view;
+
+import com.springboot.taskmanager.dto.TaskBoard;
+import com.springboot.taskmanager.dto.TaskColumnPage;
+import com.springboot.taskmanager.entity.TaskStatus;
+import com.springboot.taskmanager.event.TaskStatsRepairedEvent;
+import com.springboot.taskmanager.service.BoardVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoardColumnCacheTests {
+
+    // 100 chars of markup weigh 200 bytes, so 1000 bytes hold five columns
+    private static final String COLUMN_HTML = "<input value=\"" + BoardColumnCache.CSRF_PLACEHOLDER + "\">"
+            + "x".repeat(100 - 16 - BoardColumnCache.CSRF_PLACEHOLDER.length());
+
+    @Mock
+    private SpringTemplateEngine templateEngine;
+
+    private final BoardVersions boardVersions = new BoardVersions();
+    private final List<Set<TaskStatus>> loads = new ArrayList<>();
+    private BoardColumnCache cache;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+        MockServletContext servletContext = new MockServletContext();
+        applicationContext.setServletContext(servletContext);
+        applicationContext.refresh();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+        request = new MockHttpServletRequest(servletContext);
+
+        when(templateEngine.process(eq("fragments/board-column"), anySet(), any(IContext.class))).thenReturn(COLUMN_HTML);
+        cache = new BoardColumnCache(templateEngine, boardVersions, applicationContext,
+                new DefaultConversionService(), DataSize.ofBytes(1000));
+    }
+
+    private Map<TaskStatus, String> columns(Long userId) {
+        Function<Set<TaskStatus>, TaskBoard> loader = statuses -> {
+            loads.add(statuses);
+            EnumMap<TaskStatus, TaskColumnPage> pages = new EnumMap<>(TaskStatus.class);
+            statuses.forEach(status -> pages.put(status, new TaskColumnPage(status, Collections.emptyList(), null)));
+            return new TaskBoard(pages, new EnumMap<>(TaskStatus.class));
+        };
+        return cache.columns(userId, loader, request, new MockHttpServletResponse());
+    }
+
+    @Test
+    void boardColumnCacheFillsInTheCsrfTokenOfEachRequest() {
+        request.setAttribute(CsrfToken.class.getName(), new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "first"));
+        assertThat(columns(1L).get(TaskStatus.TO_DO)).startsWith("<input value=\"first\">");
+
+        request.setAttribute(CsrfToken.class.getName(), new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "second"));
+        assertThat(columns(1L).get(TaskStatus.TO_DO)).startsWith("<input value=\"second\">");
+
+        assertThat(loads).containsExactly(EnumSet.allOf(TaskStatus.class));
+    }
+
+    @Test
+    void boardColumnCacheRendersTheColumnsAgainWhoseCountWasRepaired() {
+        columns(1L);
+        long boardVersion = boardVersions.current(1L).counter();
+
+        TaskStatsRepairedEvent event = new TaskStatsRepairedEvent(1L, EnumSet.of(TaskStatus.DONE));
+        boardVersions.onTaskStatsRepaired(event);
+        cache.onTaskStatsRepaired(event);
+        columns(1L);
+
+        assertThat(boardVersions.current(1L).counter()).isEqualTo(boardVersion + 1);
+        assertThat(loads).containsExactly(EnumSet.allOf(TaskStatus.class), EnumSet.of(TaskStatus.DONE));
+    }
+
+    @Test
+    void boardColumnCacheEvictsLeastRecentlyUsedColumnsOverBudget() {
+        columns(1L);
+        columns(2L);
+
+        // six columns do not fit in 1000 bytes: the first column of user 1 made room
+        assertThat(cache.size()).isEqualTo(1000);
+        columns(2L);
+        columns(1L);
+
+        assertThat(loads).containsExactly(
+                EnumSet.allOf(TaskStatus.class), EnumSet.allOf(TaskStatus.class), EnumSet.of(TaskStatus.TO_DO));
+        assertThat(cache.size()).isLessThanOrEqualTo(1000);
+    }
+}
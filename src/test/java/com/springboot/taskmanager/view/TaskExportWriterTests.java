@@ -0,0 +1,70 @@
+package com.springboot.taskmanager.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboot.taskmanager.dto.TaskExportRow;
+import com.springboot.taskmanager.entity.TaskPriority;
+import com.springboot.taskmanager.entity.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskExportWriterTests {
+
+    private static final List<TaskExportRow> ROWS = List.of(
+            new TaskExportRow(1L, "Say \"hi\"", "line one\nline two", TaskPriority.LOW, null, TaskStatus.TO_DO),
+            new TaskExportRow(2L, "Zażółć", null, null, LocalDate.of(2026, 1, 31), TaskStatus.DONE));
+
+    private final TaskExportWriter writer = new TaskExportWriter(new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    @Test
+    void taskExportWriterQuotesCsvFieldsOnlyWhenNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(TaskExportFormat.CSV, out, sink -> ROWS.forEach(sink));
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,priority,dueDate,status\r\n"
+                        + "1,\"Say \"\"hi\"\"\",\"line one\nline two\",LOW,,TO_DO\r\n"
+                        + "2,Zażółć,,,2026-01-31,DONE\r\n");
+    }
+
+    @Test
+    void taskExportWriterWritesOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(TaskExportFormat.NDJSON, out, sink -> ROWS.forEach(sink));
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"id\":1,\"title\":\"Say \\\"hi\\\"\",\"description\":\"line one\\nline two\",\"priority\":\"LOW\",\"dueDate\":null,\"status\":\"TO_DO\"}",
+                "{\"id\":2,\"title\":\"Zażółć\",\"description\":null,\"priority\":null,\"dueDate\":\"2026-01-31\",\"status\":\"DONE\"}");
+    }
+
+    @Test
+    void taskExportWriterPassesOnWriteFailures() {
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // the first full buffer fails, like a client that went away mid-export
+        assertThatThrownBy(() -> writer.write(TaskExportFormat.NDJSON, closed, sink -> {
+            for (long id = 0; id < 10_000; id++) {
+                sink.accept(new TaskExportRow(id, "Task", null, null, null, TaskStatus.TO_DO));
+            }
+        })).isInstanceOf(IOException.class).hasMessage("Broken pipe");
+    }
+}
@@ -0,0 +1,115 @@
+package com.springboot.taskmanager.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.taskmanager.dto.TaskImportError;
+import com.springboot.taskmanager.dto.TaskImportProgress;
+import com.springboot.taskmanager.dto.TaskImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskImportReaderTests {
+
+    // fields of at most 24 characters, records of 64
+    private final TaskImportReader reader = new TaskImportReader(new ObjectMapper(), 24, 64);
+    private final List<TaskImportRow> rows = new ArrayList<>();
+    private final List<TaskImportError> errors = new ArrayList<>();
+
+    @Test
+    void taskImportReaderReadsCsvColumnsByHeaderName() throws IOException {
+        // the export's own output, columns reordered, with a byte order mark and a blank line
+        read(TaskExportFormat.CSV, "\uFEFFStatus,TITLE,dueDate,id,description\r\n"
+                + "DONE,\"Say \"\"hi\"\"\",2026-01-31,7,\"line one\r\nline two\"\r\n"
+                + "\r\n"
+                + ",\"Plan, then act\",,,\n"
+                + "TO_DO,No line break at the end");
+
+        assertThat(rows).containsExactly(
+                new TaskImportRow(2, "Say \"hi\"", "line one\r\nline two", null, "2026-01-31", "DONE"),
+                new TaskImportRow(5, "Plan, then act", null, null, null, null),
+                new TaskImportRow(6, "No line break at the end", null, null, null, "TO_DO"));
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void taskImportReaderReportsMalformedRecords() throws IOException {
+        read(TaskExportFormat.CSV, "description,status\nNo title column,DONE\n");
+        assertThat(rows).isEmpty();
+        assertThat(errors).containsExactly(new TaskImportError(1, "The header line has no title column."));
+
+        errors.clear();
+        read(TaskExportFormat.CSV, "title\nFine\n\"Never closed\nFine too\n");
+        assertThat(rows).containsExactly(new TaskImportRow(2, "Fine", null, null, null, null));
+        assertThat(errors).containsExactly(
+                new TaskImportError(3, "A quoted field is not closed before the end of the file."));
+
+        rows.clear();
+        errors.clear();
+        read(TaskExportFormat.NDJSON, "{\"title\":\"First\",\"priority\":\"HIGH\",\"dueDate\":null}\n"
+                + "{\"title\":\"Broken\"\n"
+                + "\n"
+                + "[\"not\", \"an object\"]\n"
+                + "{\"title\":\"Last\",\"status\":\"DONE\",\"id\":3}\n");
+        assertThat(rows).containsExactly(
+                new TaskImportRow(1, "First", null, "HIGH", null, null),
+                new TaskImportRow(5, "Last", null, null, null, "DONE"));
+        assertThat(errors).containsExactly(
+                new TaskImportError(2, "The line is not valid JSON."),
+                new TaskImportError(4, "The line is not a JSON object."));
+    }
+
+    @Test
+    void taskImportReaderSkipsOverlongRecordsAndGoesOn() throws IOException {
+        read(TaskExportFormat.CSV, "title,description\n"
+                + "Fine,\n"
+                + "Long description," + "x".repeat(25) + "\n"
+                + "\"" + "y".repeat(70) + "\n\"\"quoted, still\"\" one record\",\n"
+                + "Last,\n"
+                + "\"Never closed," + "z".repeat(100) + "\nNot a record\n");
+
+        assertThat(rows).containsExactly(
+                new TaskImportRow(2, "Fine", null, null, null, null),
+                new TaskImportRow(6, "Last", null, null, null, null));
+        // an unclosed quote is read to the end of the file, but not kept
+        assertThat(errors).containsExactly(
+                new TaskImportError(3, "A field is longer than 24 characters."),
+                new TaskImportError(4, "The record is longer than 64 characters."),
+                new TaskImportError(7, "A quoted field is not closed before the end of the file."));
+
+        rows.clear();
+        errors.clear();
+        read(TaskExportFormat.NDJSON, "{\"title\":\"" + "x".repeat(100) + "\"}\r\n"
+                + "{\"title\":\"Fine\",\"description\":\"" + "d".repeat(25) + "\"}\n"
+                + "{\"title\":\"Last\"}\r\n");
+        assertThat(rows).containsExactly(new TaskImportRow(3, "Last", null, null, null, null));
+        assertThat(errors).containsExactly(
+                new TaskImportError(1, "The line is longer than 64 characters."),
+                new TaskImportError(2, "A field is longer than 24 characters."));
+    }
+
+    @Test
+    void taskImportReaderWritesTheReportOneObjectPerLine() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskImportReader.Report report = reader.report(out);
+
+        report.error(new TaskImportError(3, "Task title cannot be empty."));
+        // progress lines are flushed right away, errors wait for the next one
+        assertThat(out.size()).isZero();
+        report.progress(new TaskImportProgress(1000, 1, false));
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"line\":3,\"error\":\"Task title cannot be empty.\"}\n"
+                        + "{\"imported\":1000,\"failed\":1,\"done\":false}\n");
+    }
+
+    private void read(TaskExportFormat format, String content) throws IOException {
+        reader.read(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), rows::add, errors::add);
+    }
+}